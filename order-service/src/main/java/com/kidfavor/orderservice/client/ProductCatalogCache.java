@@ -0,0 +1,108 @@
+package com.kidfavor.orderservice.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kidfavor.orderservice.client.dto.ProductDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process near-cache in front of {@link ProductServiceClient}.
+ * Caffeine evicts with W-TinyLFU, so the few bestsellers that make up most orders stay
+ * resident while one-off lookups do not push them out.
+ * Only catalog fields (id, name, price) are cached; stock and active status change too
+ * often and are enforced by the stock reservation instead. Entries are invalidated by
+ * product-changed events and expire after a fixed TTL, which bounds price staleness
+ * even if an event is missed.
+ * Hits, misses and evictions are exported as cache.* metrics tagged cache=product-catalog.
+ */
+@Slf4j
+@Component
+public class ProductCatalogCache {
+
+    static final String CACHE_NAME = "product-catalog";
+
+    private final ProductServiceClient productServiceClient;
+    private final Cache<Long, ProductDto> cache;
+
+    public ProductCatalogCache(ProductServiceClient productServiceClient,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.product-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${app.product-cache.ttl:60s}") Duration ttl) {
+        this.productServiceClient = productServiceClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Product near-cache configured: maximumSize={}, ttl={}", maximumSize, ttl);
+    }
+
+    /**
+     * Returns catalog data for the given products, fetching all misses in one batch call.
+     * Products that do not exist are absent from the result and are not cached.
+     */
+    public Map<Long, ProductDto> getProducts(Collection<Long> productIds) {
+        return cache.getAll(productIds, this::loadProducts);
+    }
+
+    /**
+     * Drops a product so the next lookup reads it from Product Service again.
+     */
+    public void invalidate(Long productId) {
+        cache.invalidate(productId);
+        log.debug("Product {} evicted from near-cache", productId);
+    }
+
+    /**
+     * Drops a product unless the cached entry was already loaded at {@code version} or later,
+     * e.g. when the lookup that filled it raced ahead of the change event.
+     */
+    public void invalidate(Long productId, Long version) {
+        if (version == null) {
+            invalidate(productId);
+            return;
+        }
+        cache.asMap().computeIfPresent(productId, (id, cached) ->
+                cached.getVersion() != null && cached.getVersion() >= version ? cached : null);
+        log.debug("Product {} invalidated in near-cache up to version {}", productId, version);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private Map<Long, ProductDto> loadProducts(Set<? extends Long> productIds) {
+        List<ProductDto> products = productServiceClient.getProductsByIds(List.copyOf(productIds));
+        if (products == null) {
+            return Map.of();
+        }
+        return products.stream()
+                .map(this::catalogView)
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity(), (first, second) -> first));
+    }
+
+    /**
+     * Keeps only the fields that are safe to serve from cache.
+     */
+    private ProductDto catalogView(ProductDto product) {
+        return ProductDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .version(product.getVersion())
+                .build();
+    }
+}
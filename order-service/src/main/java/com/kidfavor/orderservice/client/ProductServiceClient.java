@@ -1,10 +1,17 @@
 package com.kidfavor.orderservice.client;
 
 import com.kidfavor.orderservice.client.dto.ProductDto;
+import com.kidfavor.orderservice.client.dto.StockReservationDto;
+import com.kidfavor.orderservice.client.dto.StockReservationRequest;
 import com.kidfavor.orderservice.config.FeignClientConfig;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 /**
  * Feign client for communicating with Product Service.
@@ -19,4 +26,34 @@ public interface ProductServiceClient {
 
     @GetMapping("/products/{id}")
     ProductDto getProductById(@PathVariable("id") Long id);
+
+    /**
+     * Fetches several products in one round trip.
+     * Products that do not exist are simply absent from the returned list.
+     */
+    @GetMapping("/products/batch")
+    List<ProductDto> getProductsByIds(@RequestParam("ids") List<Long> ids);
+
+    /**
+     * Atomically reserves stock for every line of an order, all or nothing.
+     * Idempotent per reservation ID.
+     */
+    @PostMapping("/products/stock/reservations")
+    StockReservationDto reserveStock(@RequestBody StockReservationRequest request);
+
+    @PostMapping("/products/stock/reservations/{reservationId}/release")
+    StockReservationDto releaseStockReservation(@PathVariable("reservationId") String reservationId);
+
+    /**
+     * Stops the reservation from expiring; called before the order transaction commits.
+     * Fails with StockReservationReleasedException if the reservation no longer holds its stock.
+     */
+    @PostMapping("/products/stock/reservations/{reservationId}/hold")
+    void holdStockReservation(@PathVariable("reservationId") String reservationId);
+
+    /**
+     * Fails with StockReservationReleasedException if the reservation no longer holds its stock.
+     */
+    @PostMapping("/products/stock/reservations/{reservationId}/confirm")
+    StockReservationDto confirmStockReservation(@PathVariable("reservationId") String reservationId);
 }
@@ -1,16 +1,23 @@
 package com.kidfavor.orderservice.client;
 
 import com.kidfavor.orderservice.client.dto.ProductDto;
+import com.kidfavor.orderservice.client.dto.StockReservationDto;
+import com.kidfavor.orderservice.client.dto.StockReservationRequest;
 import com.kidfavor.orderservice.exception.ProductNotFoundException;
 import com.kidfavor.orderservice.exception.ProductServiceUnavailableException;
+import com.kidfavor.orderservice.exception.StockReservationReleasedException;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Fallback factory for ProductServiceClient.
  * Provides graceful degradation when Product Service is unavailable.
+ * Invoked for every failed call, including an open circuit breaker, a full bulkhead
+ * or a timeout.
  */
 @Slf4j
 @Component
@@ -23,6 +30,7 @@ public class ProductServiceClientFallbackFactory implements FallbackFactory<Prod
         return new ProductServiceClient() {
             @Override
             public ProductDto getProductById(Long id) {
+                rethrowDecoded(cause);
                 log.warn("Fallback: Unable to fetch product with ID {}. Cause: {}", id, cause.getMessage());
                 
                 // Check if it's a 404 error (product not found)
@@ -53,6 +61,63 @@ public class ProductServiceClientFallbackFactory implements FallbackFactory<Prod
                 throw new ProductServiceUnavailableException(
                         "Product Service is currently unavailable: " + cause.getMessage());
             }
+
+            @Override
+            public List<ProductDto> getProductsByIds(List<Long> ids) {
+                rethrowDecoded(cause);
+                log.warn("Fallback: Unable to fetch products {}. Cause: {}", ids, cause.getMessage());
+
+                // Missing products are omitted from a batch response, so any failure here
+                // means Product Service itself could not answer
+                throw new ProductServiceUnavailableException(
+                        "Product Service is currently unavailable: " + cause.getMessage());
+            }
+
+            @Override
+            public StockReservationDto reserveStock(StockReservationRequest request) {
+                rethrowDecoded(cause);
+                log.warn("Fallback: Unable to reserve stock for {}. Cause: {}",
+                        request.getReservationId(), cause.getMessage());
+                throw new ProductServiceUnavailableException(
+                        "Product Service is currently unavailable: " + cause.getMessage());
+            }
+
+            @Override
+            public StockReservationDto releaseStockReservation(String reservationId) {
+                rethrowDecoded(cause);
+                log.warn("Fallback: Unable to release stock reservation {}. Cause: {}",
+                        reservationId, cause.getMessage());
+                throw new ProductServiceUnavailableException(
+                        "Product Service is currently unavailable: " + cause.getMessage());
+            }
+
+            @Override
+            public void holdStockReservation(String reservationId) {
+                rethrowDecoded(cause);
+                log.warn("Fallback: Unable to hold stock reservation {}. Cause: {}",
+                        reservationId, cause.getMessage());
+                throw new ProductServiceUnavailableException(
+                        "Product Service is currently unavailable: " + cause.getMessage());
+            }
+
+            @Override
+            public StockReservationDto confirmStockReservation(String reservationId) {
+                rethrowDecoded(cause);
+                log.warn("Fallback: Unable to confirm stock reservation {}. Cause: {}",
+                        reservationId, cause.getMessage());
+                throw new ProductServiceUnavailableException(
+                        "Product Service is currently unavailable: " + cause.getMessage());
+            }
         };
     }
+
+    /**
+     * Errors already mapped by ProductServiceErrorDecoder (e.g. 404 to not found) are passed through unchanged.
+     */
+    private static void rethrowDecoded(Throwable cause) {
+        if (cause instanceof ProductNotFoundException || cause instanceof ProductServiceUnavailableException
+                || cause instanceof StockReservationReleasedException || cause instanceof IllegalArgumentException) {
+            throw (RuntimeException) cause;
+        }
+    }
 }
@@ -11,6 +11,8 @@ import org.springframework.stereotype.Component;
 /**
  * Fallback factory for UserServiceClient.
  * Provides graceful degradation when User Service is unavailable.
+ * Invoked for every failed call, including an open circuit breaker, a full bulkhead
+ * or a timeout.
  */
 @Slf4j
 @Component
@@ -23,6 +25,7 @@ public class UserServiceClientFallbackFactory implements FallbackFactory<UserSer
         return new UserServiceClient() {
             @Override
             public UserDto getUserById(Long id) {
+                rethrowDecoded(cause);
                 log.warn("Fallback: Unable to fetch user with ID {}. Cause: {}", id, cause.getMessage());
                 
                 // Check if it's a 404 error (user not found)
@@ -55,4 +58,14 @@ public class UserServiceClientFallbackFactory implements FallbackFactory<UserSer
             }
         };
     }
+
+    /**
+     * Errors already mapped by UserServiceErrorDecoder (e.g. 404 to not found) are passed through unchanged.
+     */
+    private static void rethrowDecoded(Throwable cause) {
+        if (cause instanceof UserNotFoundException || cause instanceof UserServiceUnavailableException
+                || cause instanceof IllegalArgumentException) {
+            throw (RuntimeException) cause;
+        }
+    }
 }
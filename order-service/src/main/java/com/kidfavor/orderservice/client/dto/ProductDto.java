@@ -22,4 +22,5 @@ public class ProductDto {
     private BigDecimal price;
     private Integer stock;
     private Boolean active;
+    private Long version;
 }
@@ -0,0 +1,40 @@
+package com.kidfavor.orderservice.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing the outcome of a stock reservation in Product Service.
+ * When success is false nothing was reserved and each line carries its failure reason.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationDto {
+
+    public static final String PRODUCT_NOT_FOUND = "PRODUCT_NOT_FOUND";
+    public static final String PRODUCT_INACTIVE = "PRODUCT_INACTIVE";
+    public static final String INSUFFICIENT_STOCK = "INSUFFICIENT_STOCK";
+
+    private String reservationId;
+    private boolean success;
+    private String status;
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Line {
+        private Long productId;
+        private Integer quantity;
+        private boolean reserved;
+        private Integer availableStock;
+        private String failureReason;
+    }
+}
@@ -0,0 +1,31 @@
+package com.kidfavor.orderservice.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request sent to Product Service to reserve stock for a whole order at once.
+ * The reservation ID makes the call idempotent, so retries never reserve twice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationRequest {
+
+    private String reservationId;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private Long productId;
+        private Integer quantity;
+    }
+}
@@ -1,15 +1,118 @@
 package com.kidfavor.orderservice.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Async configuration for Order Service.
- * Enables async processing for event publishing.
+ * Every executor is bounded (pool size + queue capacity), applies an explicit
+ * rejection policy when saturated and reports its load through Micrometer:
+ * order.async.executor.active, order.async.executor.queued and
+ * order.async.executor.rejected, tagged with the executor name.
+ * Setting app.async.virtual-threads runs tasks on virtual threads (Java 21+)
+ * with the same bounds.
  */
+@Slf4j
 @Configuration
 @EnableAsync
+@RequiredArgsConstructor
 public class AsyncConfig {
-    // Default async executor is used
-    // Can be customized with @Bean ThreadPoolTaskExecutor if needed
+
+    private static final String CALLER_RUNS = "CALLER_RUNS";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.async.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Default executor for @Async work such as event publishing.
+     * Registered as "taskExecutor" so Spring picks it for unqualified @Async methods.
+     */
+    @Bean(name = {"eventPublishingExecutor", "taskExecutor"})
+    public AsyncTaskExecutor eventPublishingExecutor(
+            @Value("${app.async.event-publishing.core-size:4}") int coreSize,
+            @Value("${app.async.event-publishing.max-size:16}") int maxSize,
+            @Value("${app.async.event-publishing.queue-capacity:500}") int queueCapacity,
+            @Value("${app.async.event-publishing.rejection-policy:CALLER_RUNS}") String rejectionPolicy) {
+        return buildExecutor("event-publisher", coreSize, maxSize, queueCapacity, rejectionPolicy);
+    }
+
+    /**
+     * Executor for blocking calls to other services that run alongside the request thread,
+     * e.g. user validation while products are being fetched.
+     */
+    @Bean
+    public AsyncTaskExecutor remoteCallExecutor(
+            @Value("${app.async.remote-call.core-size:8}") int coreSize,
+            @Value("${app.async.remote-call.max-size:32}") int maxSize,
+            @Value("${app.async.remote-call.queue-capacity:100}") int queueCapacity,
+            @Value("${app.async.remote-call.rejection-policy:CALLER_RUNS}") String rejectionPolicy) {
+        return buildExecutor("remote-call", coreSize, maxSize, queueCapacity, rejectionPolicy);
+    }
+
+    private AsyncTaskExecutor buildExecutor(String name, int coreSize, int maxSize,
+                                            int queueCapacity, String rejectionPolicy) {
+        boolean callerRuns = CALLER_RUNS.equalsIgnoreCase(rejectionPolicy);
+        Counter rejections = Counter.builder("order.async.executor.rejected")
+                .description("Tasks rejected because the executor was saturated")
+                .tag("executor", name)
+                .register(meterRegistry);
+
+        log.info("Configuring {} executor: virtualThreads={}, maxSize={}, queueCapacity={}, rejectionPolicy={}",
+                name, virtualThreads, maxSize, queueCapacity, callerRuns ? CALLER_RUNS : "ABORT");
+
+        if (virtualThreads) {
+            BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(
+                    name + "-", maxSize, queueCapacity, callerRuns, rejections::increment);
+            registerGauges(name, executor, BoundedVirtualThreadExecutor::getActiveCount,
+                    BoundedVirtualThreadExecutor::getQueueSize);
+            return executor;
+        }
+
+        RejectedExecutionHandler policy = callerRuns
+                ? new ThreadPoolExecutor.CallerRunsPolicy()
+                : new ThreadPoolExecutor.AbortPolicy();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejections.increment();
+            policy.rejectedExecution(task, pool);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        registerGauges(name, executor, ThreadPoolTaskExecutor::getActiveCount,
+                pool -> pool.getThreadPoolExecutor().getQueue().size());
+        return executor;
+    }
+
+    private <T> void registerGauges(String name, T executor,
+                                    ToDoubleFunction<T> activeCount,
+                                    ToDoubleFunction<T> queueSize) {
+        Gauge.builder("order.async.executor.active", executor, activeCount)
+                .description("Tasks currently running")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("order.async.executor.queued", executor, queueSize)
+                .description("Tasks accepted but waiting to run")
+                .tag("executor", name)
+                .register(meterRegistry);
+    }
 }
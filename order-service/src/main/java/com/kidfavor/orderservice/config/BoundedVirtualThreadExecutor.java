@@ -0,0 +1,149 @@
+package com.kidfavor.orderservice.config;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Virtual-thread executor with the same bounds as a thread pool.
+ * At most {@code maxConcurrency} tasks run at once; up to {@code queueCapacity} more
+ * wait parked on their own virtual thread. Anything beyond that is rejected, so a burst
+ * cannot grow memory without limit. Requires a Java 21+ runtime.
+ * <p>
+ * A task whose thread is interrupted while waiting to run is never dropped: tasks from
+ * {@code submit} and {@code submitCompletable} fail with a {@link TaskRejectedException};
+ * plain Runnables, such as those of {@code CompletableFuture.runAsync}, cannot be failed from
+ * here, so they still wait for their turn and then run with the interrupt flag set.
+ */
+public class BoundedVirtualThreadExecutor implements AsyncTaskExecutor {
+
+    private final SimpleAsyncTaskExecutor delegate;
+    private final Semaphore admitted;
+    private final Semaphore running;
+    private final boolean callerRunsWhenFull;
+    private final Runnable onRejected;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency, int queueCapacity,
+                                        boolean callerRunsWhenFull, Runnable onRejected) {
+        this.delegate = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        this.delegate.setVirtualThreads(true);
+        this.admitted = new Semaphore(maxConcurrency + queueCapacity);
+        this.running = new Semaphore(maxConcurrency);
+        this.callerRunsWhenFull = callerRunsWhenFull;
+        this.onRejected = onRejected;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            onRejected.run();
+            if (callerRunsWhenFull) {
+                task.run();
+                return;
+            }
+            throw new TaskRejectedException("Executor " + delegate.getThreadNamePrefix() + " is saturated");
+        }
+
+        inFlight.incrementAndGet();
+        try {
+            delegate.execute(() -> runBounded(task));
+        } catch (RuntimeException ex) {
+            inFlight.decrementAndGet();
+            admitted.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return submit(Executors.callable(task));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        BoundedTask<T> future = new BoundedTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> submitCompletable(Runnable task) {
+        return submitCompletable(Executors.callable(task, null));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submitCompletable(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(new BoundedTask<>(task) {
+            @Override
+            protected void done() {
+                try {
+                    result.complete(get());
+                } catch (ExecutionException ex) {
+                    result.completeExceptionally(ex.getCause());
+                } catch (InterruptedException | RuntimeException ex) {
+                    result.completeExceptionally(ex);
+                }
+            }
+        });
+        return result;
+    }
+
+    private void runBounded(Runnable task) {
+        try {
+            try {
+                running.acquire();
+            } catch (InterruptedException ex) {
+                if (task instanceof BoundedTask<?> bounded) {
+                    bounded.reject(new TaskRejectedException(
+                            "Executor " + delegate.getThreadNamePrefix() + " was interrupted before running the task"));
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                running.acquireUninterruptibly();
+                Thread.currentThread().interrupt();
+            }
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                running.release();
+            }
+        } finally {
+            inFlight.decrementAndGet();
+            admitted.release();
+        }
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getQueueSize() {
+        return Math.max(0, inFlight.get() - active.get());
+    }
+
+    private static class BoundedTask<T> extends FutureTask<T> {
+
+        BoundedTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        void reject(Throwable cause) {
+            setException(cause);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.kidfavor.orderservice.config;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.OperationException;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.kv.model.PutParams;
+import com.ecwid.consul.v1.session.model.NewSession;
+import com.ecwid.consul.v1.session.model.Session;
+import com.kidfavor.orderservice.service.impl.SnowflakeOrderNumberGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Leases an order-number node id from Consul KV, so replicas without a configured
+ * app.order-number.node-id never share one.
+ * <p>
+ * Each id is a key {@code <key-prefix>/<id>} acquired with a TTL session; Consul grants a key
+ * to one session at a time and deletes it when the session is destroyed or expires. The
+ * session is renewed every app.order-number.lease.renew-interval-ms. Consul cannot expire it
+ * sooner than one TTL after a renewal was sent, so the id counts as held until then: if
+ * renewals keep failing, {@link #checkHeld()} fails order creation instead of risking a number
+ * that another replica, having leased the same id, could also generate.
+ */
+@Slf4j
+public class ConsulNodeIdLease {
+
+    private final ConsulClient consulClient;
+    private final String keyPrefix;
+    private final Duration ttl;
+    private final String owner;
+    private final LongSupplier nanoTime;
+
+    private volatile String sessionId;
+    private volatile int nodeId = -1;
+    /**
+     * System.nanoTime() at which the last successful renewal (or the acquisition) was sent.
+     */
+    private volatile long renewedAt;
+
+    public ConsulNodeIdLease(ConsulClient consulClient, String keyPrefix, Duration ttl, String owner) {
+        this(consulClient, keyPrefix, ttl, owner, System::nanoTime);
+    }
+
+    ConsulNodeIdLease(ConsulClient consulClient, String keyPrefix, Duration ttl, String owner, LongSupplier nanoTime) {
+        this.consulClient = consulClient;
+        this.keyPrefix = keyPrefix;
+        this.ttl = ttl;
+        this.owner = owner;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Leases the first free id, probing from a random one so that replicas starting together
+     * do not all race for id 0.
+     *
+     * @return the leased node id
+     * @throws IllegalStateException if every id is taken
+     */
+    public int acquire() {
+        long startedAt = nanoTime.getAsLong();
+        sessionId = createSession();
+        int ids = SnowflakeOrderNumberGenerator.MAX_NODE_ID + 1;
+        int first = ThreadLocalRandom.current().nextInt(ids);
+        for (int i = 0; i < ids; i++) {
+            int candidate = (first + i) % ids;
+            if (tryAcquire(sessionId, candidate)) {
+                nodeId = candidate;
+                renewedAt = startedAt;
+                log.info("Leased order-number node id {} as {}", candidate, owner);
+                return candidate;
+            }
+        }
+        destroySession(sessionId);
+        throw new IllegalStateException("All " + ids + " order-number node ids under " + keyPrefix + " are leased");
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @throws IllegalStateException if the lease may have expired, so another replica may hold the id
+     */
+    public void checkHeld() {
+        if (nanoTime.getAsLong() - renewedAt >= ttl.toNanos()) {
+            throw new IllegalStateException("Lease on order-number node id " + nodeId + " expired; retry later");
+        }
+    }
+
+    /**
+     * Renews the session; if Consul already dropped it, tries to lease the same id again
+     * under a new session (this fails while the key's lock delay lasts, and is retried).
+     */
+    @Scheduled(fixedDelayString = "${app.order-number.lease.renew-interval-ms:10000}")
+    public void renew() {
+        long startedAt = nanoTime.getAsLong();
+        try {
+            consulClient.renewSession(sessionId, QueryParams.DEFAULT);
+            renewedAt = startedAt;
+        } catch (OperationException ex) {
+            if (ex.getStatusCode() != 404) {
+                log.warn("Failed to renew lease on node id {}: {}", nodeId, ex.getMessage());
+                return;
+            }
+            reacquire(startedAt);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to renew lease on node id {}: {}", nodeId, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        if (sessionId != null) {
+            destroySession(sessionId);
+        }
+    }
+
+    private void reacquire(long startedAt) {
+        log.error("Lease session on node id {} expired; leasing it again", nodeId);
+        try {
+            String session = createSession();
+            if (tryAcquire(session, nodeId)) {
+                sessionId = session;
+                renewedAt = startedAt;
+                log.info("Leased order-number node id {} again", nodeId);
+            } else {
+                destroySession(session);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to lease node id {} again: {}", nodeId, ex.getMessage());
+        }
+    }
+
+    private String createSession() {
+        NewSession session = new NewSession();
+        session.setName("order-number-node-id:" + owner);
+        session.setTtl(ttl.toSeconds() + "s");
+        session.setBehavior(Session.Behavior.DELETE);
+        return consulClient.sessionCreate(session, QueryParams.DEFAULT).getValue();
+    }
+
+    private boolean tryAcquire(String session, int candidate) {
+        PutParams params = new PutParams();
+        params.setAcquireSession(session);
+        return Boolean.TRUE.equals(consulClient.setKVValue(keyPrefix + "/" + candidate, owner, params).getValue());
+    }
+
+    private void destroySession(String session) {
+        try {
+            consulClient.sessionDestroy(session, QueryParams.DEFAULT);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to destroy lease session {}: {}", session, ex.getMessage());
+        }
+    }
+}
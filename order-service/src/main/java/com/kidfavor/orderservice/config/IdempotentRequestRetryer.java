@@ -0,0 +1,41 @@
+package com.kidfavor.orderservice.config;
+
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Retries only requests with an idempotent HTTP method.
+ * A timed-out POST may already have been applied by the other side, and retrying it during
+ * an incident multiplies the load on a service that is already struggling, so it fails
+ * on the first error and is left to the circuit breaker.
+ */
+public class IdempotentRequestRetryer implements Retryer {
+
+    private static final Set<Request.HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(
+            Request.HttpMethod.GET, Request.HttpMethod.HEAD, Request.HttpMethod.OPTIONS,
+            Request.HttpMethod.PUT, Request.HttpMethod.DELETE);
+
+    private final Retryer delegate;
+
+    public IdempotentRequestRetryer(Retryer delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        if (e.method() == null || !IDEMPOTENT_METHODS.contains(e.method())) {
+            throw e;
+        }
+        delegate.continueOrPropagate(e);
+    }
+
+    @Override
+    public Retryer clone() {
+        // Retryer.Default keeps per-request attempt state, so every request needs its own copy
+        return new IdempotentRequestRetryer(delegate.clone());
+    }
+}
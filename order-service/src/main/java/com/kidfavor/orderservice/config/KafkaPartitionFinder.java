@@ -0,0 +1,25 @@
+package com.kidfavor.orderservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.springframework.kafka.core.KafkaAdmin;
+
+/**
+ * Lists the partitions of a topic for listeners that assign them to themselves, e.g.
+ * {@code partitions = "#{@kafkaPartitionFinder.partitions('${app.kafka.topics.product-changed}')}"}.
+ * Such listeners join no consumer group and commit no offsets, so an instance that goes away
+ * leaves nothing behind on the broker. Partitions are read once, when the listener is
+ * registered; startup fails if the topic does not exist yet.
+ */
+@RequiredArgsConstructor
+public class KafkaPartitionFinder {
+
+    private final KafkaAdmin kafkaAdmin;
+
+    public String[] partitions(String topic) {
+        TopicDescription description = kafkaAdmin.describeTopics(topic).get(topic);
+        return description.partitions().stream()
+                .map(partition -> String.valueOf(partition.partition()))
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,61 @@
+package com.kidfavor.orderservice.config;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.kidfavor.orderservice.service.OrderNumberGenerator;
+import com.kidfavor.orderservice.service.impl.SnowflakeOrderNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Order number generation.
+ * Each replica needs its own node id for order numbers to be unique: either set
+ * app.order-number.node-id (0-1023) per replica, e.g. from the pod ordinal, or leave it
+ * unset and a free id is leased from Consul KV (see {@link ConsulNodeIdLease}). Without
+ * either the service does not start.
+ */
+@Slf4j
+@Configuration
+public class OrderNumberConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.order-number.node-id", havingValue = "-1", matchIfMissing = true)
+    public ConsulNodeIdLease consulNodeIdLease(
+            ObjectProvider<ConsulClient> consulClient,
+            @Value("${app.order-number.lease.key-prefix:order-service/order-number/node-ids}") String keyPrefix,
+            @Value("${app.order-number.lease.ttl:30s}") Duration ttl,
+            @Value("${spring.cloud.consul.discovery.instance-id:${spring.application.name}}") String instanceId) {
+        ConsulClient client = consulClient.getIfAvailable();
+        if (client == null) {
+            throw new IllegalStateException(
+                    "app.order-number.node-id is not set and Consul is disabled; set a node id unique to this replica");
+        }
+        ConsulNodeIdLease lease = new ConsulNodeIdLease(client, keyPrefix, ttl, instanceId);
+        lease.acquire();
+        return lease;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OrderNumberGenerator orderNumberGenerator(
+            @Value("${app.order-number.node-id:-1}") int configuredNodeId,
+            ObjectProvider<ConsulNodeIdLease> leaseProvider) {
+        if (configuredNodeId >= 0) {
+            log.info("Order numbers use node id {}", configuredNodeId);
+            return new SnowflakeOrderNumberGenerator(configuredNodeId);
+        }
+        ConsulNodeIdLease lease = leaseProvider.getObject();
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(lease.getNodeId());
+        log.info("Order numbers use leased node id {}", lease.getNodeId());
+        return () -> {
+            lease.checkHeld();
+            return generator.nextOrderNumber();
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.kidfavor.orderservice.config;
 
 import com.kidfavor.orderservice.exception.ProductNotFoundException;
 import com.kidfavor.orderservice.exception.ProductServiceUnavailableException;
+import com.kidfavor.orderservice.exception.StockReservationReleasedException;
 import feign.Response;
 import feign.codec.ErrorDecoder;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +19,7 @@ public class ProductServiceErrorDecoder implements ErrorDecoder {
 
     private final ErrorDecoder defaultDecoder = new Default();
     private static final Pattern PRODUCT_ID_PATTERN = Pattern.compile("/products/(\\d+)");
+    private static final Pattern RESERVATION_ID_PATTERN = Pattern.compile("/products/stock/reservations/([^/?]+)/");
 
     @Override
     public Exception decode(String methodKey, Response response) {
@@ -25,6 +27,14 @@ public class ProductServiceErrorDecoder implements ErrorDecoder {
         log.error("Error calling Product Service. Method: {}, Status: {}, URL: {}", 
                 methodKey, response.status(), requestUrl);
 
+        Matcher reservation = RESERVATION_ID_PATTERN.matcher(requestUrl != null ? requestUrl : "");
+        if ((response.status() == 404 || response.status() == 409) && reservation.find()) {
+            // Hold or confirm of a reservation that no longer holds its stock
+            log.warn("Stock reservation {} is released or missing", reservation.group(1));
+            return new StockReservationReleasedException(
+                    "Stock reservation " + reservation.group(1) + " no longer holds its stock");
+        }
+
         return switch (response.status()) {
             case 404 -> {
                 Long productId = extractProductId(requestUrl);
@@ -0,0 +1,135 @@
+package com.kidfavor.orderservice.config;
+
+import com.kidfavor.orderservice.exception.ProductNotFoundException;
+import com.kidfavor.orderservice.exception.UserNotFoundException;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4jBulkheadProvider;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.cloud.openfeign.CircuitBreakerNameResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Circuit breaker, time limiter and bulkhead for the Feign clients
+ * (spring.cloud.openfeign.circuitbreaker.enabled).
+ * <p>
+ * There is one instance of each per client, named after the client, and each client has its
+ * own settings under app.resilience.&lt;client&gt;. An open breaker, a full bulkhead or a timeout
+ * fails the call immediately; the client's FallbackFactory turns that into the matching
+ * *ServiceUnavailableException (503). Answers such as "not found" are not counted as failures.
+ * <p>
+ * Breaker state, call and bulkhead metrics are published as resilience4j.* meters; every state
+ * change is also counted in order.circuitbreaker.transitions{name,from,to} and logged.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ResilienceConfig {
+
+    private static final List<String> CLIENTS = List.of("product-service", "user-service");
+
+    private final Environment environment;
+
+    /**
+     * Names breakers after the Feign client instead of each of its methods.
+     */
+    @Bean
+    public CircuitBreakerNameResolver circuitBreakerNameResolver() {
+        return (feignClientName, target, method) -> feignClientName;
+    }
+
+    @Bean
+    public Customizer<Resilience4JCircuitBreakerFactory> circuitBreakerCustomizer(MeterRegistry meterRegistry) {
+        return factory -> {
+            for (String client : CLIENTS) {
+                factory.configure(builder -> builder
+                        .circuitBreakerConfig(circuitBreakerConfig(client))
+                        .timeLimiterConfig(TimeLimiterConfig.custom()
+                                .timeoutDuration(setting(client, "timeout", Duration.class, Duration.ofSeconds(6)))
+                                .cancelRunningFuture(true)
+                                .build()), client);
+            }
+            factory.getCircuitBreakerRegistry().getEventPublisher()
+                    .onEntryAdded(event -> recordTransitions(event.getAddedEntry(), meterRegistry));
+        };
+    }
+
+    /**
+     * Caps concurrent calls per client, so a slow service ties up a bounded number of
+     * threads instead of the whole Tomcat pool. Calls beyond the cap and the queue are rejected.
+     */
+    @Bean
+    public Customizer<Resilience4jBulkheadProvider> bulkheadCustomizer() {
+        return provider -> {
+            for (String client : CLIENTS) {
+                int maxConcurrentCalls = setting(client, "max-concurrent-calls", Integer.class, 20);
+                provider.configure(builder -> builder
+                        .bulkheadConfig(BulkheadConfig.custom()
+                                .maxConcurrentCalls(maxConcurrentCalls)
+                                .maxWaitDuration(Duration.ZERO)
+                                .build())
+                        .threadPoolBulkheadConfig(ThreadPoolBulkheadConfig.custom()
+                                .maxThreadPoolSize(maxConcurrentCalls)
+                                .coreThreadPoolSize(maxConcurrentCalls)
+                                .queueCapacity(setting(client, "queue-capacity", Integer.class, 10))
+                                .build()), client);
+            }
+        };
+    }
+
+    private CircuitBreakerConfig circuitBreakerConfig(String client) {
+        return CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(setting(client, "sliding-window-size", Integer.class, 20))
+                .minimumNumberOfCalls(setting(client, "minimum-number-of-calls", Integer.class, 10))
+                .failureRateThreshold(setting(client, "failure-rate-threshold", Float.class, 50f))
+                .slowCallRateThreshold(setting(client, "slow-call-rate-threshold", Float.class, 80f))
+                .slowCallDurationThreshold(setting(client, "slow-call-duration", Duration.class, Duration.ofSeconds(2)))
+                .waitDurationInOpenState(setting(client, "wait-duration-in-open-state", Duration.class, Duration.ofSeconds(10)))
+                .permittedNumberOfCallsInHalfOpenState(setting(client, "permitted-calls-in-half-open-state", Integer.class, 3))
+                .recordException(ResilienceConfig::isServiceFailure)
+                .build();
+    }
+
+    /**
+     * Only failures of the remote service count towards opening the breaker,
+     * not well-formed answers such as 404 or a rejected request.
+     */
+    private static boolean isServiceFailure(Throwable ex) {
+        if (ex instanceof ProductNotFoundException || ex instanceof UserNotFoundException
+                || ex instanceof IllegalArgumentException) {
+            return false;
+        }
+        return !(ex instanceof FeignException feignException
+                && feignException.status() >= 400 && feignException.status() < 500);
+    }
+
+    private void recordTransitions(CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        String name = circuitBreaker.getName();
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            log.warn("Circuit breaker {} changed from {} to {}", name, transition.getFromState(), transition.getToState());
+            meterRegistry.counter("order.circuitbreaker.transitions",
+                    "name", name,
+                    "from", transition.getFromState().name(),
+                    "to", transition.getToState().name()).increment();
+        });
+    }
+
+    private <T> T setting(String client, String name, Class<T> type, T defaultValue) {
+        return environment.getProperty("app.resilience." + client + "." + name, type, defaultValue);
+    }
+}
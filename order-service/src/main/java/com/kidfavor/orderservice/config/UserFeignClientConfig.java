@@ -23,15 +23,16 @@ public class UserFeignClientConfig {
 
     /**
      * Configure retry policy for transient failures.
-     * Retries up to 3 times with exponential backoff.
+     * Idempotent requests are retried up to 3 times with exponential backoff;
+     * others fail on the first error (see {@link IdempotentRequestRetryer}).
      */
     @Bean
     public Retryer feignRetryer() {
-        return new Retryer.Default(
+        return new IdempotentRequestRetryer(new Retryer.Default(
                 100,           // initial interval in ms
                 TimeUnit.SECONDS.toMillis(1), // max interval
                 3              // max attempts
-        );
+        ));
     }
 
     /**
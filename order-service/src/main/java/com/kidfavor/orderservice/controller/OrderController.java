@@ -1,10 +1,17 @@
 package com.kidfavor.orderservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kidfavor.orderservice.dto.ApiResponse;
+import com.kidfavor.orderservice.dto.request.BulkCreateOrderRequest;
+import com.kidfavor.orderservice.dto.request.BulkUpdateOrderStatusRequest;
 import com.kidfavor.orderservice.dto.request.CreateOrderRequest;
 import com.kidfavor.orderservice.dto.request.UpdateOrderStatusRequest;
+import com.kidfavor.orderservice.dto.response.BulkResponse;
+import com.kidfavor.orderservice.dto.response.CursorPageResponse;
 import com.kidfavor.orderservice.dto.response.OrderResponse;
+import com.kidfavor.orderservice.dto.response.OrderStatusResponse;
 import com.kidfavor.orderservice.entity.OrderStatus;
+import com.kidfavor.orderservice.service.IdempotencyService;
 import com.kidfavor.orderservice.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,10 +21,13 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * REST Controller for Order operations.
@@ -30,23 +40,46 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    @Operation(summary = "Create a new order", description = "Creates a new order after validating product availability")
+    @Operation(summary = "Create a new order", description = "Creates a new order after validating product availability. " +
+            "Retries carrying the same Idempotency-Key return the original order instead of creating another one")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Order created successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request or product validation failed"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency-Key was already used with a different request"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Product service unavailable")
     })
     public ResponseEntity<ApiResponse<OrderResponse>> createOrder(
+            @Parameter(description = "Client-generated key (e.g. a UUID) identifying this order attempt across retries")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody CreateOrderRequest request) {
         log.info("Received create order request for user: {}", request.getUserId());
-        OrderResponse response = orderService.createOrder(request);
+        OrderResponse response = idempotencyService.execute(idempotencyKey, request, OrderResponse.class,
+                () -> orderService.createOrder(request));
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.created(response));
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Create orders in bulk", description = "Creates up to 100 orders in one request. " +
+            "Each order is validated independently; the result lists the outcome of every order in request order")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Orders processed; see the per-order results"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Product service unavailable")
+    })
+    public ResponseEntity<ApiResponse<BulkResponse<OrderResponse>>> createOrders(
+            @Valid @RequestBody BulkCreateOrderRequest request) {
+        log.info("Received bulk create request for {} orders", request.getOrders().size());
+        BulkResponse<OrderResponse> response = orderService.createOrders(request.getOrders());
+        return ResponseEntity.ok(ApiResponse.success("Bulk order creation processed", response));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get order by ID", description = "Retrieves an order by its unique identifier")
     @ApiResponses(value = {
@@ -74,29 +107,56 @@ public class OrderController {
     }
 
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get orders by user", description = "Retrieves all orders for a specific user")
+    @Operation(summary = "Get orders by user", description = "Retrieves a user's orders, newest first, one cursor page at a time")
     @ApiResponses(value = {
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Orders retrieved successfully")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Orders retrieved successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
     })
-    public ResponseEntity<ApiResponse<List<OrderResponse>>> getOrdersByUserId(
-            @Parameter(description = "User ID") @PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<CursorPageResponse<OrderResponse>>> getOrdersByUserId(
+            @Parameter(description = "User ID") @PathVariable Long userId,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 20, max 100)") @RequestParam(required = false) Integer size) {
         log.debug("Fetching orders for user: {}", userId);
-        List<OrderResponse> response = orderService.getOrdersByUserId(userId);
+        CursorPageResponse<OrderResponse> response = orderService.getOrdersByUserId(userId, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     @GetMapping("/status/{status}")
-    @Operation(summary = "Get orders by status", description = "Retrieves all orders with a specific status")
+    @Operation(summary = "Get orders by status", description = "Retrieves orders with a specific status, newest first, one cursor page at a time")
     @ApiResponses(value = {
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Orders retrieved successfully")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Orders retrieved successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
     })
-    public ResponseEntity<ApiResponse<List<OrderResponse>>> getOrdersByStatus(
-            @Parameter(description = "Order status") @PathVariable OrderStatus status) {
+    public ResponseEntity<ApiResponse<CursorPageResponse<OrderResponse>>> getOrdersByStatus(
+            @Parameter(description = "Order status") @PathVariable OrderStatus status,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 20, max 100)") @RequestParam(required = false) Integer size) {
         log.debug("Fetching orders by status: {}", status);
-        List<OrderResponse> response = orderService.getOrdersByStatus(status);
+        CursorPageResponse<OrderResponse> response = orderService.getOrdersByStatus(status, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping(value = "/status/{status}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export orders by status", description = "Streams every order with a specific status as newline-delimited JSON")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Orders streamed successfully")
+    })
+    public ResponseEntity<StreamingResponseBody> exportOrdersByStatus(
+            @Parameter(description = "Order status") @PathVariable OrderStatus status) {
+        log.info("Exporting orders by status: {}", status);
+        StreamingResponseBody body = outputStream -> orderService.exportOrdersByStatus(status, order -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(order));
+                outputStream.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PatchMapping("/{id}/status")
     @Operation(summary = "Update order status", description = "Updates the status of an existing order")
     @ApiResponses(value = {
@@ -112,6 +172,20 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Order status updated", response));
     }
 
+    @PatchMapping("/status/bulk")
+    @Operation(summary = "Update order statuses in bulk", description = "Applies up to 500 status changes in one transaction. " +
+            "Invalid transitions and unknown orders are reported per item without affecting the others")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Status changes processed; see the per-item results"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request")
+    })
+    public ResponseEntity<ApiResponse<BulkResponse<OrderStatusResponse>>> updateOrderStatuses(
+            @Valid @RequestBody BulkUpdateOrderStatusRequest request) {
+        log.info("Received bulk status update for {} orders", request.getItems().size());
+        BulkResponse<OrderStatusResponse> response = orderService.updateOrderStatuses(request.getItems());
+        return ResponseEntity.ok(ApiResponse.success("Bulk status update processed", response));
+    }
+
     @PatchMapping("/{id}/cancel")
     @Operation(summary = "Cancel order", description = "Cancels an order if it's in a cancellable state")
     @ApiResponses(value = {
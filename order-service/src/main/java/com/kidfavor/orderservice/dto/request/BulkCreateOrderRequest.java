@@ -0,0 +1,23 @@
+package com.kidfavor.orderservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCreateOrderRequest {
+
+    @NotEmpty(message = "At least one order is required")
+    @Size(max = 100, message = "At most 100 orders can be created per request")
+    @Valid
+    private List<CreateOrderRequest> orders;
+}
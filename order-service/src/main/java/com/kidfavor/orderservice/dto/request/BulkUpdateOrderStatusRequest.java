@@ -0,0 +1,38 @@
+package com.kidfavor.orderservice.dto.request;
+
+import com.kidfavor.orderservice.entity.OrderStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUpdateOrderStatusRequest {
+
+    @NotEmpty(message = "At least one status change is required")
+    @Size(max = 500, message = "At most 500 status changes can be applied per request")
+    @Valid
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+
+        @NotNull(message = "Order ID is required")
+        private Long orderId;
+
+        @NotNull(message = "Order status is required")
+        private OrderStatus status;
+    }
+}
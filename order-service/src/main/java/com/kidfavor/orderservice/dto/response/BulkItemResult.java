@@ -0,0 +1,33 @@
+package com.kidfavor.orderservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk request.
+ * The index refers to the item's position in the request; status uses HTTP status codes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult<T> {
+
+    private int index;
+    private boolean success;
+    private int status;
+    private T data;
+    private String error;
+
+    public static <T> BulkItemResult<T> success(int index, int status, T data) {
+        return new BulkItemResult<>(index, true, status, data, null);
+    }
+
+    public static <T> BulkItemResult<T> failure(int index, int status, String error) {
+        return new BulkItemResult<>(index, false, status, null, error);
+    }
+}
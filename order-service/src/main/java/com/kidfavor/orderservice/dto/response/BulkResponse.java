@@ -0,0 +1,28 @@
+package com.kidfavor.orderservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Per-item results of a bulk request, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkResponse<T> {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult<T>> results;
+
+    public static <T> BulkResponse<T> of(List<BulkItemResult<T>> results) {
+        int succeeded = (int) results.stream().filter(BulkItemResult::isSuccess).count();
+        return new BulkResponse<>(results.size(), succeeded, results.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,22 @@
+package com.kidfavor.orderservice.dto.response;
+
+import com.kidfavor.orderservice.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status of an order after a bulk status change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusResponse {
+
+    private Long id;
+    private String orderNumber;
+    private OrderStatus status;
+    private Long version;
+}
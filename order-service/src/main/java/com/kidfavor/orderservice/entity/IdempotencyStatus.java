@@ -0,0 +1,6 @@
+package com.kidfavor.orderservice.entity;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
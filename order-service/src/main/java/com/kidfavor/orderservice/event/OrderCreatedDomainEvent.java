@@ -6,7 +6,7 @@ import org.springframework.context.ApplicationEvent;
 
 /**
  * Domain event that wraps OrderPlacedEvent for Spring's event mechanism.
- * This event is published within the application and then forwarded to Kafka.
+ * This event is published within the application and recorded in the order outbox.
  */
 @Getter
 public class OrderCreatedDomainEvent extends ApplicationEvent {
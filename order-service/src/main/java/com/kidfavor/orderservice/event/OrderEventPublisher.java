@@ -1,74 +1,61 @@
 package com.kidfavor.orderservice.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kidfavor.orderservice.entity.Order;
+import com.kidfavor.orderservice.entity.OrderOutboxEvent;
+import com.kidfavor.orderservice.repository.OrderOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
- * Event listener that publishes OrderPlacedEvent to Kafka.
- * Uses @TransactionalEventListener with AFTER_COMMIT phase to ensure
- * events are only published after the database transaction successfully commits.
+ * Event listener that records OrderPlacedEvent in the transactional outbox.
+ * Uses @TransactionalEventListener with BEFORE_COMMIT phase so the outbox row
+ * is written in the same database transaction as the order itself.
+ * {@link OrderOutboxRelay} forwards the rows to Kafka.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class OrderEventPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    static final String ORDER_PLACED_EVENT_TYPE = "OrderPlacedEvent";
+
+    private final OrderOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
 
     @Value("${app.kafka.topics.order-placed}")
     private String orderPlacedTopic;
 
     /**
-     * Listens for OrderCreatedDomainEvent and publishes to Kafka AFTER transaction commits.
+     * Listens for OrderCreatedDomainEvent and stores it in the outbox BEFORE the transaction commits.
      * This ensures that:
-     * 1. Events are only published for successfully persisted orders
-     * 2. No Kafka messages are sent if the transaction rolls back
-     * 3. Event publishing failures don't affect the order creation transaction
+     * 1. Events are only recorded for successfully persisted orders
+     * 2. No event survives if the transaction rolls back
+     * 3. No event is lost if Kafka is down or the pod restarts after commit
      */
-    @Async
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
     public void handleOrderCreatedEvent(OrderCreatedDomainEvent event) {
         Order order = event.getOrder();
         String orderNumber = order.getOrderNumber();
-        
-        log.info("Publishing OrderPlacedEvent for order: {}", orderNumber);
 
-        try {
-            OrderPlacedEvent orderPlacedEvent = buildOrderPlacedEvent(order);
-            
-            CompletableFuture<SendResult<String, Object>> future = 
-                    kafkaTemplate.send(orderPlacedTopic, orderNumber, orderPlacedEvent);
-            
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    log.info("OrderPlacedEvent published successfully for order: {}. Topic: {}, Partition: {}, Offset: {}",
-                            orderNumber,
-                            result.getRecordMetadata().topic(),
-                            result.getRecordMetadata().partition(),
-                            result.getRecordMetadata().offset());
-                } else {
-                    log.error("Failed to publish OrderPlacedEvent for order: {}. Error: {}",
-                            orderNumber, ex.getMessage(), ex);
-                    // Here you could implement retry logic or dead-letter queue
-                    handlePublishFailure(orderPlacedEvent, ex);
-                }
-            });
-            
-        } catch (Exception ex) {
-            log.error("Error building/publishing OrderPlacedEvent for order: {}. Error: {}",
-                    orderNumber, ex.getMessage(), ex);
-        }
+        log.info("Recording OrderPlacedEvent in outbox for order: {}", orderNumber);
+
+        OrderOutboxEvent outboxEvent = OrderOutboxEvent.builder()
+                .aggregateId(order.getId())
+                .eventType(ORDER_PLACED_EVENT_TYPE)
+                .topic(orderPlacedTopic)
+                .messageKey(orderNumber)
+                .payload(serialize(buildOrderPlacedEvent(order)))
+                .build();
+
+        outboxRepository.save(outboxEvent);
     }
 
     /**
@@ -93,13 +80,13 @@ public class OrderEventPublisher {
                 .build();
     }
 
-    /**
-     * Handles failures in publishing events to Kafka.
-     * In production, this could write to a dead-letter queue or retry table.
-     */
-    private void handlePublishFailure(OrderPlacedEvent event, Throwable ex) {
-        log.warn("Storing failed event for order {} for later retry. This should be handled by a retry mechanism.",
-                event.getOrderNumber());
-        // TODO: Implement dead-letter queue or outbox pattern for guaranteed delivery
+    private String serialize(OrderPlacedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            // Fail the order transaction rather than commit an order without its event
+            throw new IllegalStateException(
+                    "Unable to serialize OrderPlacedEvent for order " + event.getOrderNumber(), ex);
+        }
     }
 }
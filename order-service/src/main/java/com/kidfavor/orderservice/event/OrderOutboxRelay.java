@@ -0,0 +1,238 @@
+package com.kidfavor.orderservice.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kidfavor.orderservice.entity.OrderOutboxEvent;
+import com.kidfavor.orderservice.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays pending outbox rows to Kafka in batches.
+ * Each batch is claimed in a short transaction: the rows are locked with FOR UPDATE SKIP LOCKED
+ * and their claimed_until is set, so several order-service replicas can drain the outbox
+ * concurrently without publishing the same row twice. The records are sent with no transaction
+ * open, and a second short transaction marks the acknowledged rows sent and records the failures.
+ * If a replica dies before that, its claim lapses after claim-timeout and the rows are sent again.
+ * A row that fails max-attempts times is parked so it cannot block the relay, and sent
+ * rows are purged once they are older than the retention period.
+ */
+@Slf4j
+@Component
+public class OrderOutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OrderOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.outbox.claim-timeout:60s}")
+    private Duration claimTimeout;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention;
+
+    @Value("${app.outbox.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    public OrderOutboxRelay(OrderOutboxRepository outboxRepository,
+                            KafkaTemplate<String, Object> kafkaTemplate,
+                            ObjectMapper objectMapper,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+
+        Gauge.builder("order.outbox.backlog", backlog, AtomicLong::get)
+                .description("Outbox rows waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("order.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox row")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("order.outbox.published")
+                .description("Outbox rows published to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("order.outbox.publish.failures")
+                .description("Outbox publish attempts that failed")
+                .register(meterRegistry);
+        Gauge.builder("order.outbox.parked", parked, AtomicLong::get)
+                .description("Outbox rows parked after reaching the maximum number of attempts")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("order.outbox.parked.total")
+                .description("Outbox rows parked after reaching the maximum number of attempts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drains the outbox until a batch comes back short or with failures,
+     * then refreshes the backlog metrics.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relayPendingEvents() {
+        try {
+            Integer sent;
+            do {
+                sent = publishBatch();
+            } while (sent != null && sent >= batchSize);
+            refreshMetrics();
+        } catch (Exception ex) {
+            log.error("Outbox relay cycle failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Claims, publishes and marks one batch. Returns the number of rows acknowledged by Kafka.
+     */
+    private int publishBatch() {
+        // Truncated to the column's precision, so markFailed can match the claim exactly
+        LocalDateTime claimedUntil = LocalDateTime.now().plus(claimTimeout).truncatedTo(ChronoUnit.MICROS);
+        List<OrderOutboxEvent> batch = transactionTemplate.execute(status -> claimBatch(claimedUntil));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        // Send the whole batch first so the producer can group records, then wait for the acks
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(batch.size());
+        for (OrderOutboxEvent outboxEvent : batch) {
+            futures.add(send(outboxEvent));
+        }
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<OrderOutboxEvent> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OrderOutboxEvent outboxEvent = batch.get(i);
+            try {
+                futures.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                sentIds.add(outboxEvent.getId());
+                continue;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                markFailed(outboxEvent, ex);
+            } catch (ExecutionException ex) {
+                markFailed(outboxEvent, ex.getCause() != null ? ex.getCause() : ex);
+            } catch (TimeoutException ex) {
+                markFailed(outboxEvent, ex);
+            }
+            failed.add(outboxEvent);
+        }
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxRepository.markSent(sentIds, sentAt);
+            }
+            for (OrderOutboxEvent outboxEvent : failed) {
+                outboxRepository.markFailed(outboxEvent.getId(), claimedUntil, outboxEvent.getAttempts(),
+                        outboxEvent.getLastError(), outboxEvent.getParkedAt());
+            }
+        });
+
+        publishedCounter.increment(sentIds.size());
+        log.debug("Outbox batch relayed: {} of {} rows published", sentIds.size(), batch.size());
+        return sentIds.size();
+    }
+
+    private List<OrderOutboxEvent> claimBatch(LocalDateTime claimedUntil) {
+        List<OrderOutboxEvent> batch = outboxRepository.lockNextPendingBatch(LocalDateTime.now(), batchSize);
+        // Flushed as one batched UPDATE at commit
+        batch.forEach(outboxEvent -> outboxEvent.setClaimedUntil(claimedUntil));
+        return batch;
+    }
+
+    /**
+     * Deletes rows sent longer ago than the retention period, in batches of purge-batch-size.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purgeSentEvents() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+            int purged = 0;
+            Integer deleted;
+            do {
+                deleted = transactionTemplate.execute(status ->
+                        outboxRepository.deleteSentBefore(cutoff, purgeBatchSize));
+                purged += deleted != null ? deleted : 0;
+            } while (deleted != null && deleted >= purgeBatchSize);
+            if (purged > 0) {
+                log.info("Purged {} outbox rows sent before {}", purged, cutoff);
+            }
+        } catch (Exception ex) {
+            log.error("Outbox purge failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OrderOutboxEvent outboxEvent) {
+        try {
+            OrderPlacedEvent event = objectMapper.readValue(outboxEvent.getPayload(), OrderPlacedEvent.class);
+            return kafkaTemplate.send(outboxEvent.getTopic(), outboxEvent.getMessageKey(), event);
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private void markFailed(OrderOutboxEvent outboxEvent, Throwable ex) {
+        failedCounter.increment();
+        outboxEvent.setAttempts(outboxEvent.getAttempts() + 1);
+        String message = String.valueOf(ex.getMessage());
+        outboxEvent.setLastError(message.length() > MAX_ERROR_LENGTH
+                ? message.substring(0, MAX_ERROR_LENGTH)
+                : message);
+        if (outboxEvent.getAttempts() >= maxAttempts) {
+            outboxEvent.setParkedAt(LocalDateTime.now());
+            parkedCounter.increment();
+            log.error("Parked outbox event {} for key {} after {} attempts: {}",
+                    outboxEvent.getId(), outboxEvent.getMessageKey(), outboxEvent.getAttempts(), message);
+            return;
+        }
+        log.warn("Failed to publish outbox event {} for key {} (attempt {}): {}",
+                outboxEvent.getId(), outboxEvent.getMessageKey(), outboxEvent.getAttempts(), message);
+    }
+
+    private void refreshMetrics() {
+        backlog.set(outboxRepository.countBySentAtIsNullAndParkedAtIsNull());
+        parked.set(outboxRepository.countByParkedAtIsNotNull());
+        LocalDateTime oldestPending = outboxRepository.findOldestPendingCreatedAt();
+        lagSeconds.set(oldestPending == null
+                ? 0
+                : Math.max(0, Duration.between(oldestPending, LocalDateTime.now()).toSeconds()));
+    }
+}
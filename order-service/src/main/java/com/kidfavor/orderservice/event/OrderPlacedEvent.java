@@ -11,7 +11,7 @@ import java.util.List;
 
 /**
  * Event published when an order is successfully created.
- * This event is published to Kafka AFTER the database transaction commits.
+ * Stored in the order outbox with the order and relayed to Kafka after commit.
  */
 @Data
 @NoArgsConstructor
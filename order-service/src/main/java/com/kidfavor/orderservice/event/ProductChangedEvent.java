@@ -0,0 +1,30 @@
+package com.kidfavor.orderservice.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Change record published by Product Service on the product-changed topic.
+ * Order Service only reads the fields it needs; unknown fields are ignored
+ * so Product Service can extend the record freely.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductChangedEvent {
+
+    private Long productId;
+    private Long version;
+    private String changeType;
+    private BigDecimal price;
+    private Boolean active;
+    private List<String> changedFields;
+}
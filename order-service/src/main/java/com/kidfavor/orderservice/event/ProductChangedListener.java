@@ -0,0 +1,85 @@
+package com.kidfavor.orderservice.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kidfavor.orderservice.client.ProductCatalogCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidates the product near-cache when Product Service reports a change.
+ * Every instance assigns itself all partitions instead of joining a consumer group, so each
+ * one evicts from its own cache; no offsets are committed and it starts at the latest record.
+ * Stock-only changes are ignored because the cache does not hold stock.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductChangedListener {
+
+    private static final String FIELD_STOCK = "stock";
+
+    private final ProductCatalogCache productCatalogCache;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = "${app.kafka.topics.product-changed}",
+                    partitions = "#{@kafkaPartitionFinder.partitions('${app.kafka.topics.product-changed}')}"),
+            containerFactory = "productChangedListenerContainerFactory"
+    )
+    public void onProductChanged(ConsumerRecord<String, String> record) {
+        ProductChangedEvent event = readEvent(record);
+        if (event != null && isStockOnly(event)) {
+            return;
+        }
+
+        Long productId = resolveProductId(record, event);
+        if (productId == null) {
+            // Without an id we cannot tell which entry is stale, so drop them all
+            log.warn("Product change without product id at offset {}, clearing near-cache", record.offset());
+            productCatalogCache.invalidateAll();
+            return;
+        }
+        // Tombstones carry no version and always evict
+        productCatalogCache.invalidate(productId, event != null ? event.getVersion() : null);
+    }
+
+    /**
+     * Reads the record value; tombstones for deleted products have none.
+     */
+    private ProductChangedEvent readEvent(ConsumerRecord<String, String> record) {
+        if (record.value() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(record.value(), ProductChangedEvent.class);
+        } catch (Exception ex) {
+            log.warn("Unreadable product change at offset {}: {}", record.offset(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isStockOnly(ProductChangedEvent event) {
+        return event.getChangedFields() != null
+                && !event.getChangedFields().isEmpty()
+                && event.getChangedFields().stream().allMatch(FIELD_STOCK::equals);
+    }
+
+    /**
+     * The record key is the product id; the payload is only consulted if the key is missing.
+     */
+    private Long resolveProductId(ConsumerRecord<String, String> record, ProductChangedEvent event) {
+        if (record.key() != null) {
+            try {
+                return Long.valueOf(record.key());
+            } catch (NumberFormatException ex) {
+                log.warn("Unexpected product change key {} at offset {}", record.key(), record.offset());
+            }
+        }
+        return event != null ? event.getProductId() : null;
+    }
+}
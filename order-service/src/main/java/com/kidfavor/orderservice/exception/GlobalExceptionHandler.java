@@ -3,6 +3,7 @@ package com.kidfavor.orderservice.exception;
 import com.kidfavor.orderservice.dto.ApiResponse;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -102,6 +103,38 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(500, "Error communicating with external service: " + ex.getMessage()));
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent modification: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(409, "The order was modified concurrently; reload it and retry"));
+    }
+
+    @ExceptionHandler(StockReservationReleasedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleStockReservationReleasedException(StockReservationReleasedException ex) {
+        log.warn("Stock reservation released: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(409, "The stock reserved for this order is no longer held"));
+    }
+
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotentRequestInProgressException(IdempotentRequestInProgressException ex) {
+        log.warn("Duplicate request in progress: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(409, ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex) {
+        log.warn("Idempotency key reuse: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ApiResponse.error(422, ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Void>> handleValidationException(MethodArgumentNotValidException ex) {
         String errorMessage = ex.getBindingResult().getFieldErrors().stream()
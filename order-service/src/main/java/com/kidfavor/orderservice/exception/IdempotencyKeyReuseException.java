@@ -0,0 +1,11 @@
+package com.kidfavor.orderservice.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is reused with a different request body.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException(String key) {
+        super("Idempotency-Key " + key + " was already used with a different request");
+    }
+}
@@ -0,0 +1,12 @@
+package com.kidfavor.orderservice.exception;
+
+/**
+ * Exception thrown when a request with the same Idempotency-Key is still being processed
+ * and did not finish within the wait timeout.
+ */
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    public IdempotentRequestInProgressException(String key) {
+        super("A request with Idempotency-Key " + key + " is still in progress; retry later");
+    }
+}
@@ -0,0 +1,12 @@
+package com.kidfavor.orderservice.exception;
+
+/**
+ * Exception thrown when Product Service no longer holds the stock of an order's reservation
+ * (released, e.g. by its expiry sweep, or not found), so the order cannot be placed or confirmed.
+ */
+public class StockReservationReleasedException extends RuntimeException {
+
+    public StockReservationReleasedException(String message) {
+        super(message);
+    }
+}
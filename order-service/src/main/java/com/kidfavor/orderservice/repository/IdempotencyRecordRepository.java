@@ -0,0 +1,69 @@
+package com.kidfavor.orderservice.repository;
+
+import com.kidfavor.orderservice.entity.IdempotencyRecord;
+import com.kidfavor.orderservice.entity.IdempotencyStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims a key with a plain INSERT; a duplicate key surfaces as a
+     * DataIntegrityViolationException instead of silently merging into the existing row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_idempotency_keys " +
+            "(idempotency_key, request_hash, status, created_at, expires_at, owner_token) " +
+            "VALUES (:key, :requestHash, 'IN_PROGRESS', :now, :expiresAt, :ownerToken)", nativeQuery = true)
+    int insertInProgress(@Param("key") String key,
+                         @Param("requestHash") String requestHash,
+                         @Param("ownerToken") String ownerToken,
+                         @Param("now") LocalDateTime now,
+                         @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Stores the response if the claim is still held by ownerToken; returns 0 once it was taken over.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.responseBody = :responseBody, r.completedAt = :now " +
+            "WHERE r.key = :key AND r.ownerToken = :ownerToken AND r.status = :claimedStatus")
+    int complete(@Param("key") String key,
+                 @Param("ownerToken") String ownerToken,
+                 @Param("claimedStatus") IdempotencyStatus claimedStatus,
+                 @Param("status") IdempotencyStatus status,
+                 @Param("responseBody") String responseBody,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Releases the claim after a failed attempt so the key can be retried; a claim taken
+     * over by another execution is left alone.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.ownerToken = :ownerToken AND r.status = :status")
+    int deleteClaim(@Param("key") String key,
+                    @Param("ownerToken") String ownerToken,
+                    @Param("status") IdempotencyStatus status);
+
+    /**
+     * Takes over a claim whose owner has held it since before the cutoff (e.g. it crashed mid-request).
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.status = :status AND r.createdAt < :cutoff")
+    int deleteStaleClaim(@Param("key") String key,
+                         @Param("status") IdempotencyStatus status,
+                         @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.expiresAt <= :now")
+    int deleteExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+}
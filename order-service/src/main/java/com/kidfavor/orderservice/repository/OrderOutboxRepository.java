@@ -0,0 +1,62 @@
+package com.kidfavor.orderservice.repository;
+
+import com.kidfavor.orderservice.entity.OrderOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    /**
+     * Locks the next batch of pending rows that no relay has claimed, or whose claim lapsed.
+     * Rows already locked by another relay instance are skipped; the caller claims the rows
+     * before committing, so replicas drain the outbox without overlap.
+     */
+    @Query(value = "SELECT * FROM order_outbox WHERE sent_at IS NULL AND parked_at IS NULL "
+            + "AND (claimed_until IS NULL OR claimed_until < :now) "
+            + "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OrderOutboxEvent> lockNextPendingBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.sentAt = :sentAt, e.claimedUntil = NULL "
+            + "WHERE e.id IN :ids AND e.sentAt IS NULL")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Records a failed attempt, unless the claim lapsed and another relay claimed the row since.
+     */
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.attempts = :attempts, e.lastError = :lastError, "
+            + "e.parkedAt = :parkedAt, e.claimedUntil = NULL "
+            + "WHERE e.id = :id AND e.claimedUntil = :claimedUntil")
+    int markFailed(@Param("id") Long id,
+                   @Param("claimedUntil") LocalDateTime claimedUntil,
+                   @Param("attempts") int attempts,
+                   @Param("lastError") String lastError,
+                   @Param("parkedAt") LocalDateTime parkedAt);
+
+    long countBySentAtIsNullAndParkedAtIsNull();
+
+    long countByParkedAtIsNotNull();
+
+    @Query("SELECT MIN(e.createdAt) FROM OrderOutboxEvent e WHERE e.sentAt IS NULL AND e.parkedAt IS NULL")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    /**
+     * Deletes up to batchSize rows sent before the cutoff; called in a loop so a large
+     * backlog is purged in short transactions.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM order_outbox WHERE id IN "
+            + "(SELECT id FROM order_outbox WHERE sent_at < :cutoff LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
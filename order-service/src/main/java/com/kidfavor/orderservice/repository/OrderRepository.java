@@ -2,12 +2,17 @@ package com.kidfavor.orderservice.repository;
 
 import com.kidfavor.orderservice.entity.Order;
 import com.kidfavor.orderservice.entity.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +27,39 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByStatus(OrderStatus status);
 
+    /*
+     * Keyset pagination over (createdAt DESC, id DESC).
+     * Pageable only carries the page size; the cursor replaces the offset.
+     * The cursor is a row comparison so that PostgreSQL bounds the index range with it
+     * (see OrderRepositoryQueryPlanTest) instead of filtering every row before it.
+     */
+
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId " +
+            "AND (o.createdAt, o.id) < (:createdAt, :id) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByUserIdAfter(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("SELECT o FROM Order o WHERE o.status = :status ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstPageByStatus(@Param("status") OrderStatus status, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.status = :status " +
+            "AND (o.createdAt, o.id) < (:createdAt, :id) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByStatusAfter(
+            @Param("status") OrderStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
     @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
     List<Order> findOrdersByDateRange(
             @Param("startDate") LocalDateTime startDate,
@@ -32,4 +70,21 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByIdWithItems(@Param("id") Long id);
 
     boolean existsByOrderNumber(String orderNumber);
+
+    /**
+     * Loads and row-locks the given orders for a bulk status change.
+     * Ordered by id so concurrent bulk requests lock rows in the same order and cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Set-based status change; bumps the version so optimistic writers holding the old row fail.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.version = o.version + 1, o.updatedAt = :now WHERE o.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") OrderStatus status,
+                     @Param("now") LocalDateTime now);
 }
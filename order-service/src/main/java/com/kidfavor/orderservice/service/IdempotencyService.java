@@ -0,0 +1,289 @@
+package com.kidfavor.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kidfavor.orderservice.entity.IdempotencyRecord;
+import com.kidfavor.orderservice.entity.IdempotencyStatus;
+import com.kidfavor.orderservice.exception.IdempotencyKeyReuseException;
+import com.kidfavor.orderservice.exception.IdempotentRequestInProgressException;
+import com.kidfavor.orderservice.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per Idempotency-Key.
+ * The key is claimed with an INSERT committed on its own, so every replica sees it;
+ * the stored response is written in the same transaction as the work itself, so a
+ * committed order always has a replayable response. Retries of a completed request are
+ * answered from that row by primary key, without calling product-service or user-service.
+ * Concurrent duplicates wait for the first execution: on the same replica through its
+ * future, on other replicas by polling the row until it completes or is released.
+ * A record past its expiry counts as absent even before the purge deletes it.
+ * Each claim carries a random owner token, and completing or releasing it is conditional on
+ * that token: an execution that outlived its lease and lost the key to a takeover rolls back
+ * its work instead of overwriting the new owner's row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long MIN_POLL_INTERVAL_MS = 20;
+    private static final long MAX_POLL_INTERVAL_MS = 500;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Executions currently owned by this replica, keyed by Idempotency-Key.
+     */
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${app.idempotency.wait-timeout:10s}")
+    private Duration waitTimeout;
+
+    @Value("${app.idempotency.lease:60s}")
+    private Duration lease;
+
+    /**
+     * Runs the action once for the given key and request, or returns the response of the
+     * execution that already ran (or is running) for it.
+     *
+     * @param key          the Idempotency-Key header, or {@code null} to run the action unconditionally
+     * @param request      request body; reusing a key with a different body is rejected
+     * @param responseType type the stored response is read back as
+     * @param action       the work to run; it joins the transaction that stores the response
+     */
+    public <T> T execute(String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(request);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            String ownerToken = UUID.randomUUID().toString();
+            Optional<IdempotencyRecord> existing = claim(key, requestHash, ownerToken);
+            if (existing.isEmpty()) {
+                return runClaimed(key, ownerToken, responseType, action);
+            }
+
+            IdempotencyRecord record = existing.get();
+            if (!record.getRequestHash().equals(requestHash)) {
+                throw new IdempotencyKeyReuseException(key);
+            }
+            if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                log.info("Replaying stored response for Idempotency-Key {}", key);
+                return readResponse(record, responseType);
+            }
+
+            // Null means the first execution gave up the key; claim it again
+            T response = awaitCompletion(record, responseType, deadline);
+            if (response != null) {
+                return response;
+            }
+        }
+    }
+
+    /**
+     * Drops expired keys. Every replica may run this; the delete is idempotent.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    /**
+     * @return empty when this call claimed the key, otherwise the record that holds it
+     */
+    private Optional<IdempotencyRecord> claim(String key, String requestHash, String ownerToken) {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        idempotencyRecordRepository.insertInProgress(key, requestHash, ownerToken, now, now.plus(ttl)));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException ex) {
+                Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+                if (existing.isPresent() && existing.get().getExpiresAt().isAfter(now)) {
+                    return existing;
+                }
+                if (existing.isPresent()) {
+                    // Expired but not purged yet: the key is free, so delete the record and claim it
+                    transactionTemplate.executeWithoutResult(status ->
+                            idempotencyRecordRepository.deleteExpired(key, now));
+                }
+                // Released between our insert and the lookup, or expired; try to claim it again
+            }
+        }
+    }
+
+    private <T> T runClaimed(String key, String ownerToken, Class<T> responseType, Supplier<T> action) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        inFlight.put(key, future);
+        try {
+            T response = transactionTemplate.execute(status -> {
+                T result = action.get();
+                int completed = idempotencyRecordRepository.complete(key, ownerToken, IdempotencyStatus.IN_PROGRESS,
+                        IdempotencyStatus.COMPLETED, writeResponse(result), LocalDateTime.now());
+                if (completed == 0) {
+                    // Held past the lease and taken over; roll back so the request runs only once
+                    log.warn("Lost Idempotency-Key {} to another execution; rolling back", key);
+                    throw new IdempotentRequestInProgressException(key);
+                }
+                return result;
+            });
+            future.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            // Failures are not stored: release the key so the client can retry it
+            releaseClaim(key, ownerToken);
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Waits for the execution holding the key.
+     *
+     * @return its response, or {@code null} if it released the key without completing
+     */
+    private <T> T awaitCompletion(IdempotencyRecord record, Class<T> responseType, long deadline) {
+        String key = record.getKey();
+        CompletableFuture<Object> local = inFlight.get(key);
+        if (local != null) {
+            return awaitLocal(key, local, responseType, deadline);
+        }
+
+        if (takeOverIfStale(record)) {
+            return null;
+        }
+
+        long pollInterval = MIN_POLL_INTERVAL_MS;
+        while (System.nanoTime() < deadline) {
+            sleep(key, pollInterval);
+            pollInterval = Math.min(pollInterval * 2, MAX_POLL_INTERVAL_MS);
+
+            Optional<IdempotencyRecord> current = idempotencyRecordRepository.findById(key);
+            if (current.isEmpty()) {
+                return null;
+            }
+            if (current.get().getStatus() == IdempotencyStatus.COMPLETED) {
+                return readResponse(current.get(), responseType);
+            }
+        }
+        throw new IdempotentRequestInProgressException(key);
+    }
+
+    private <T> T awaitLocal(String key, CompletableFuture<Object> future, Class<T> responseType, long deadline) {
+        try {
+            return responseType.cast(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (ExecutionException ex) {
+            // Duplicates get the same outcome as the first execution instead of running it again
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IdempotentRequestInProgressException(key);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException(key);
+        }
+    }
+
+    /**
+     * Frees a key whose owner has held it longer than the lease, e.g. because it crashed.
+     */
+    private boolean takeOverIfStale(IdempotencyRecord record) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(lease);
+        if (!record.getCreatedAt().isBefore(cutoff)) {
+            return false;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteStaleClaim(record.getKey(), IdempotencyStatus.IN_PROGRESS, cutoff));
+        if (deleted != null && deleted > 0) {
+            log.warn("Took over stale Idempotency-Key {} claimed at {}", record.getKey(), record.getCreatedAt());
+            return true;
+        }
+        return false;
+    }
+
+    private void releaseClaim(String key, String ownerToken) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepository.deleteClaim(key, ownerToken, IdempotencyStatus.IN_PROGRESS));
+        } catch (RuntimeException ex) {
+            // The lease expiry frees the key eventually
+            log.warn("Failed to release Idempotency-Key {}: {}", key, ex.getMessage());
+        }
+    }
+
+    private void sleep(String key, long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException(key);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Failed to hash request", ex);
+        }
+    }
+
+    private String writeResponse(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize response", ex);
+        }
+    }
+
+    private <T> T readResponse(IdempotencyRecord record, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(record.getResponseBody(), responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to read stored response for Idempotency-Key " + record.getKey(), ex);
+        }
+    }
+}
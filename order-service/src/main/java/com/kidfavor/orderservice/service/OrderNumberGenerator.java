@@ -0,0 +1,15 @@
+package com.kidfavor.orderservice.service;
+
+/**
+ * Source of order numbers.
+ * Implementations must return values that are unique across every order-service replica.
+ * The default is {@link com.kidfavor.orderservice.service.impl.SnowflakeOrderNumberGenerator};
+ * declaring another bean of this type replaces it.
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * @return a new, never before returned order number
+     */
+    String nextOrderNumber();
+}
@@ -1,10 +1,15 @@
 package com.kidfavor.orderservice.service;
 
+import com.kidfavor.orderservice.dto.request.BulkUpdateOrderStatusRequest;
 import com.kidfavor.orderservice.dto.request.CreateOrderRequest;
+import com.kidfavor.orderservice.dto.response.BulkResponse;
+import com.kidfavor.orderservice.dto.response.CursorPageResponse;
 import com.kidfavor.orderservice.dto.response.OrderResponse;
+import com.kidfavor.orderservice.dto.response.OrderStatusResponse;
 import com.kidfavor.orderservice.entity.OrderStatus;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for order operations.
@@ -20,6 +25,15 @@ public interface OrderService {
      */
     OrderResponse createOrder(CreateOrderRequest request);
 
+    /**
+     * Creates several orders at once. Each order is validated and has its stock reserved
+     * independently; the accepted ones are inserted together in one transaction.
+     *
+     * @param requests the order creation requests
+     * @return one result per request, in request order
+     */
+    BulkResponse<OrderResponse> createOrders(List<CreateOrderRequest> requests);
+
     /**
      * Retrieves an order by its ID.
      *
@@ -37,20 +51,33 @@ public interface OrderService {
     OrderResponse getOrderByOrderNumber(String orderNumber);
 
     /**
-     * Retrieves all orders for a specific user.
+     * Retrieves one page of a user's orders, newest first.
      *
      * @param userId the user ID
-     * @return list of order responses
+     * @param cursor cursor returned by the previous page, or null for the first page
+     * @param size requested page size, capped by the service
+     * @return page of order responses
      */
-    List<OrderResponse> getOrdersByUserId(Long userId);
+    CursorPageResponse<OrderResponse> getOrdersByUserId(Long userId, String cursor, Integer size);
 
     /**
-     * Retrieves orders by status.
+     * Retrieves one page of orders with the given status, newest first.
      *
      * @param status the order status
-     * @return list of order responses
+     * @param cursor cursor returned by the previous page, or null for the first page
+     * @param size requested page size, capped by the service
+     * @return page of order responses
      */
-    List<OrderResponse> getOrdersByStatus(OrderStatus status);
+    CursorPageResponse<OrderResponse> getOrdersByStatus(OrderStatus status, String cursor, Integer size);
+
+    /**
+     * Walks every order with the given status in bounded chunks and hands each one to the consumer.
+     * Only one chunk is held in memory at a time, so this is safe for exports of any size.
+     *
+     * @param status the order status
+     * @param consumer receives each order, newest first
+     */
+    void exportOrdersByStatus(OrderStatus status, Consumer<OrderResponse> consumer);
 
     /**
      * Updates the status of an order.
@@ -61,6 +88,15 @@ public interface OrderService {
      */
     OrderResponse updateOrderStatus(Long orderId, OrderStatus status);
 
+    /**
+     * Applies several status changes in one transaction, with one UPDATE per target status.
+     * Changes that fail the transition rules are reported per item and do not affect the others.
+     *
+     * @param items the status changes
+     * @return one result per item, in request order
+     */
+    BulkResponse<OrderStatusResponse> updateOrderStatuses(List<BulkUpdateOrderStatusRequest.Item> items);
+
     /**
      * Cancels an order if it's still in a cancellable state.
      *
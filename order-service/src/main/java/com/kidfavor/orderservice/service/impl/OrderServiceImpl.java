@@ -1,34 +1,61 @@
 package com.kidfavor.orderservice.service.impl;
 
+import com.kidfavor.orderservice.client.ProductCatalogCache;
 import com.kidfavor.orderservice.client.ProductServiceClient;
 import com.kidfavor.orderservice.client.UserServiceClient;
 import com.kidfavor.orderservice.client.dto.ProductDto;
+import com.kidfavor.orderservice.client.dto.StockReservationDto;
+import com.kidfavor.orderservice.client.dto.StockReservationRequest;
 import com.kidfavor.orderservice.client.dto.UserDto;
+import com.kidfavor.orderservice.dto.OrderCursor;
+import com.kidfavor.orderservice.dto.request.BulkUpdateOrderStatusRequest;
 import com.kidfavor.orderservice.dto.request.CreateOrderRequest;
 import com.kidfavor.orderservice.dto.request.OrderItemRequest;
+import com.kidfavor.orderservice.dto.response.BulkItemResult;
+import com.kidfavor.orderservice.dto.response.BulkResponse;
+import com.kidfavor.orderservice.dto.response.CursorPageResponse;
 import com.kidfavor.orderservice.dto.response.OrderItemResponse;
 import com.kidfavor.orderservice.dto.response.OrderResponse;
+import com.kidfavor.orderservice.dto.response.OrderStatusResponse;
 import com.kidfavor.orderservice.entity.Order;
 import com.kidfavor.orderservice.entity.OrderItem;
 import com.kidfavor.orderservice.entity.OrderStatus;
 import com.kidfavor.orderservice.event.OrderCreatedDomainEvent;
 import com.kidfavor.orderservice.exception.*;
 import com.kidfavor.orderservice.repository.OrderRepository;
+import com.kidfavor.orderservice.service.OrderNumberGenerator;
 import com.kidfavor.orderservice.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -40,62 +67,132 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final ProductServiceClient productServiceClient;
+    private final ProductCatalogCache productCatalogCache;
     private final UserServiceClient userServiceClient;
     private final ApplicationEventPublisher eventPublisher;
+    private final AsyncTaskExecutor remoteCallExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderNumberGenerator orderNumberGenerator;
+
+    @Value("${app.optimistic-lock.max-attempts:3}")
+    private int optimisticLockMaxAttempts;
 
     @Override
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
         log.info("Creating order for user: {}", request.getUserId());
 
-        // Step 1: Validate user exists and is active
-        validateUser(request.getUserId());
+        // Step 1: Validate user exists and is active, concurrently with the product fetch
+        CompletableFuture<Void> userValidation = remoteCallExecutor.submitCompletable(
+                () -> validateUser(request.getUserId()));
 
         // Step 2: Validate all products BEFORE creating the order
-        Map<Long, ProductDto> validatedProducts = validateAndFetchProducts(request.getItems());
-
-        // Step 3: Create order entity
-        Order order = Order.builder()
-                .orderNumber(generateOrderNumber())
-                .userId(request.getUserId())
-                .status(OrderStatus.PENDING)
-                .shippingAddress(request.getShippingAddress())
-                .phoneNumber(request.getPhoneNumber())
-                .notes(request.getNotes())
-                .items(new ArrayList<>())
-                .build();
-
-        // Step 3: Create order items with validated product data
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            ProductDto product = validatedProducts.get(itemRequest.getProductId());
-            
-            OrderItem orderItem = OrderItem.builder()
-                    .productId(product.getId())
-                    .productName(product.getName())
-                    .unitPrice(product.getPrice())
-                    .quantity(itemRequest.getQuantity())
-                    .subtotal(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())))
-                    .build();
-            
-            order.addItem(orderItem);
+        Map<Long, ProductDto> validatedProducts;
+        try {
+            validatedProducts = validateAndFetchProducts(request.getItems());
+        } finally {
+            // User errors take precedence, as they did when validation ran sequentially
+            awaitUserValidation(userValidation);
         }
 
-        // Step 4: Calculate total amount
-        order.calculateTotalAmount();
+        // Step 3: Reserve stock for all items in one atomic call, keyed by the order number
+        String orderNumber = orderNumberGenerator.nextOrderNumber();
+        reserveStock(orderNumber, request.getItems());
+
+        // Step 4: Build the order and its items from the validated product data
+        Order order = buildOrder(orderNumber, request, validatedProducts);
 
         // Step 5: Persist order atomically
         Order savedOrder = orderRepository.save(order);
         log.info("Order created successfully. Order ID: {}, Order Number: {}", 
                 savedOrder.getId(), savedOrder.getOrderNumber());
 
-        // Step 6: Publish domain event (will be sent to Kafka AFTER_COMMIT)
+        // Step 6: Publish domain event (recorded in the outbox within this transaction)
         eventPublisher.publishEvent(new OrderCreatedDomainEvent(this, savedOrder));
 
+        // Step 7: Stop the reservation from expiring before the order commits
+        productServiceClient.holdStockReservation(orderNumber);
+
         return mapToOrderResponse(savedOrder);
     }
 
+    /**
+     * Remote work (user checks, stock reservations) runs outside any transaction and
+     * concurrently on the remote-call executor; only the inserts share one transaction,
+     * where sequence-generated ids let Hibernate send them as JDBC batches.
+     */
+    @Override
+    public BulkResponse<OrderResponse> createOrders(List<CreateOrderRequest> requests) {
+        log.info("Creating {} orders in bulk", requests.size());
+        List<BulkItemResult<OrderResponse>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+
+        // Each distinct user is validated once, concurrently with the product lookup
+        Map<Long, CompletableFuture<Void>> userValidations = new HashMap<>();
+        for (CreateOrderRequest request : requests) {
+            userValidations.computeIfAbsent(request.getUserId(),
+                    userId -> remoteCallExecutor.submitCompletable(() -> validateUser(userId)));
+        }
+
+        // One batch lookup covers the products of every order
+        Map<Long, ProductDto> products = productCatalogCache.getProducts(requests.stream()
+                .flatMap(request -> request.getItems().stream())
+                .map(OrderItemRequest::getProductId)
+                .distinct()
+                .collect(Collectors.toList()));
+
+        List<CompletableFuture<Order>> reservations = new ArrayList<>(requests.size());
+        for (CreateOrderRequest request : requests) {
+            reservations.add(userValidations.get(request.getUserId())
+                    .thenCompose(ignored -> remoteCallExecutor.submitCompletable(() -> {
+                        validateProducts(distinctProductIds(request.getItems()), products);
+                        String orderNumber = orderNumberGenerator.nextOrderNumber();
+                        try {
+                            requestReservation(orderNumber, request.getItems());
+                            return buildOrder(orderNumber, request, products);
+                        } catch (RuntimeException ex) {
+                            // A failed or timed-out call may still have reserved; releasing is idempotent
+                            releaseStock(orderNumber);
+                            throw ex;
+                        }
+                    })));
+        }
+
+        List<Order> reserved = new ArrayList<>();
+        List<Integer> reservedIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                reserved.add(reservations.get(i).join());
+                reservedIndexes.add(i);
+            } catch (CompletionException ex) {
+                results.set(i, toFailure(i, unwrap(ex)));
+            }
+        }
+
+        if (!reserved.isEmpty()) {
+            try {
+                List<OrderResponse> saved = transactionTemplate.execute(tx -> persistOrders(reserved));
+                for (int j = 0; j < reservedIndexes.size(); j++) {
+                    int index = reservedIndexes.get(j);
+                    results.set(index, BulkItemResult.success(index, 201, saved.get(j)));
+                }
+            } catch (RuntimeException ex) {
+                log.error("Failed to persist {} bulk orders: {}", reserved.size(), ex.getMessage());
+                reserved.forEach(order -> releaseStock(order.getOrderNumber()));
+                reservedIndexes.forEach(index -> results.set(index, toFailure(index, ex)));
+            }
+        }
+
+        BulkResponse<OrderResponse> response = BulkResponse.of(results);
+        log.info("Bulk order creation finished: {} created, {} failed", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long orderId) {
@@ -116,44 +213,193 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByUserId(Long userId) {
-        log.debug("Fetching orders for user: {}", userId);
-        return orderRepository.findByUserId(userId).stream()
-                .map(this::mapToOrderResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<OrderResponse> getOrdersByUserId(Long userId, String cursor, Integer size) {
+        log.debug("Fetching orders for user: {}, cursor: {}", userId, cursor);
+        int pageSize = resolvePageSize(size);
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Order> orders = cursor == null
+                ? orderRepository.findFirstPageByUserId(userId, limit)
+                : findPageByUserIdAfter(userId, OrderCursor.decode(cursor), limit);
+        return toCursorPage(orders, pageSize);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByStatus(OrderStatus status) {
-        log.debug("Fetching orders by status: {}", status);
-        return orderRepository.findByStatus(status).stream()
-                .map(this::mapToOrderResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<OrderResponse> getOrdersByStatus(OrderStatus status, String cursor, Integer size) {
+        log.debug("Fetching orders by status: {}, cursor: {}", status, cursor);
+        int pageSize = resolvePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Order> orders = cursor == null
+                ? orderRepository.findFirstPageByStatus(status, limit)
+                : findPageByStatusAfter(status, OrderCursor.decode(cursor), limit);
+        return toCursorPage(orders, pageSize);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportOrdersByStatus(OrderStatus status, Consumer<OrderResponse> consumer) {
+        log.info("Exporting orders by status: {}", status);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        Pageable chunk = PageRequest.of(0, EXPORT_CHUNK_SIZE);
+
+        // Each chunk gets its own short read-only transaction and persistence context,
+        // so neither the connection nor the loaded entities are held for the whole export
+        OrderCursor cursor = null;
+        long exported = 0;
+        while (true) {
+            OrderCursor after = cursor;
+            List<OrderResponse> orders = readOnlyTransaction.execute(tx -> {
+                List<Order> page = after == null
+                        ? orderRepository.findFirstPageByStatus(status, chunk)
+                        : findPageByStatusAfter(status, after, chunk);
+                return page.stream().map(this::mapToOrderResponse).collect(Collectors.toList());
+            });
+            if (orders == null || orders.isEmpty()) {
+                break;
+            }
+
+            orders.forEach(consumer);
+            exported += orders.size();
+            if (orders.size() < EXPORT_CHUNK_SIZE) {
+                break;
+            }
+            OrderResponse last = orders.get(orders.size() - 1);
+            cursor = OrderCursor.of(last.getCreatedAt(), last.getId());
+        }
+        log.info("Exported {} orders with status {}", exported, status);
+    }
+
+    /**
+     * Setting a status is idempotent, so an optimistic-lock conflict is retried against the
+     * fresh row; the transition is validated again on every attempt.
+     */
+    @Override
     public OrderResponse updateOrderStatus(Long orderId, OrderStatus status) {
+        return retryOnConflict("update status of order " + orderId,
+                () -> transactionTemplate.execute(tx -> applyStatus(orderId, status)));
+    }
+
+    /**
+     * Same retry as updateOrderStatus; cancelling an already cancelled order is a no-op.
+     */
+    @Override
+    public OrderResponse cancelOrder(Long orderId) {
+        return retryOnConflict("cancel order " + orderId,
+                () -> transactionTemplate.execute(tx -> applyCancellation(orderId)));
+    }
+
+    /**
+     * The orders are locked up front, so the transitions validated in memory still hold
+     * when the set-based UPDATE runs. Reservations are confirmed before the UPDATE, like
+     * updateOrderStatus does; releases are dispatched after commit.
+     */
+    @Override
+    public BulkResponse<OrderStatusResponse> updateOrderStatuses(List<BulkUpdateOrderStatusRequest.Item> items) {
+        log.info("Applying {} order status changes in bulk", items.size());
+        List<BulkItemResult<OrderStatusResponse>> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            Map<Long, Order> orders = orderRepository.findAllByIdForUpdate(items.stream()
+                            .map(BulkUpdateOrderStatusRequest.Item::getOrderId)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+            Map<OrderStatus, List<Integer>> changesByStatus = new EnumMap<>(OrderStatus.class);
+            Set<Long> seen = new HashSet<>();
+            for (int i = 0; i < items.size(); i++) {
+                BulkUpdateOrderStatusRequest.Item item = items.get(i);
+                Order order = orders.get(item.getOrderId());
+                if (!seen.add(item.getOrderId())) {
+                    results.set(i, BulkItemResult.failure(i, 400, "Duplicate order ID in request: " + item.getOrderId()));
+                } else if (order == null) {
+                    results.set(i, BulkItemResult.failure(i, 404, new OrderNotFoundException(item.getOrderId()).getMessage()));
+                } else if (order.getStatus() == item.getStatus()) {
+                    // Đã ở trạng thái này rồi, giống updateOrderStatus: không làm gì thêm
+                    results.set(i, BulkItemResult.success(i, 200, toStatusResponse(order, order.getStatus(), order.getVersion())));
+                } else if (!canTransition(order.getStatus(), item.getStatus())) {
+                    results.set(i, BulkItemResult.failure(i, 400, transitionError(order.getStatus())));
+                } else {
+                    changesByStatus.computeIfAbsent(item.getStatus(), status -> new ArrayList<>()).add(i);
+                }
+            }
+
+            // Orders whose reservation cannot be confirmed fail and keep their status
+            List<Integer> confirming = changesByStatus.remove(OrderStatus.CONFIRMED);
+            if (confirming != null) {
+                List<Integer> confirmed = confirmReservations(confirming, items, orders, results);
+                if (!confirmed.isEmpty()) {
+                    changesByStatus.put(OrderStatus.CONFIRMED, confirmed);
+                }
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            changesByStatus.forEach((status, indexes) -> {
+                List<Order> group = indexes.stream()
+                        .map(i -> orders.get(items.get(i).getOrderId()))
+                        .collect(Collectors.toList());
+                int updated = orderRepository.updateStatus(
+                        group.stream().map(Order::getId).collect(Collectors.toList()), status, now);
+                log.info("Bulk updated {} orders to {}", updated, status);
+
+                for (int j = 0; j < indexes.size(); j++) {
+                    Order order = group.get(j);
+                    int index = indexes.get(j);
+                    results.set(index, BulkItemResult.success(index, 200,
+                            toStatusResponse(order, status, order.getVersion() + 1)));
+
+                    // The entity still has its pre-update status; a SHIPPED order no longer holds stock
+                    if (status == OrderStatus.CANCELLED && holdsStock(order.getStatus())) {
+                        afterCommitAsync(() -> releaseStock(order.getOrderNumber()),
+                                "release stock reservation", order.getOrderNumber());
+                    }
+                }
+            });
+        });
+
+        return BulkResponse.of(results);
+    }
+
+    private OrderResponse applyStatus(Long orderId, OrderStatus status) {
         log.info("Updating order {} status to {}", orderId, status);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
+
+        if (order.getStatus() == status) {
+            // Đã ở trạng thái này rồi (ví dụ request trùng hoặc retry), không làm gì thêm
+            return mapToOrderResponse(order);
+        }
         
         validateStatusTransition(order.getStatus(), status);
+        OrderStatus previousStatus = order.getStatus();
+        if (status == OrderStatus.CONFIRMED) {
+            // Before the status changes: an order whose reservation lost its stock must not be confirmed.
+            // Confirming is idempotent, so a retried attempt may confirm again
+            productServiceClient.confirmStockReservation(order.getOrderNumber());
+        }
         order.setStatus(status);
         
-        Order updatedOrder = orderRepository.save(order);
+        // Flush so a concurrent change is detected inside this attempt and the response has the new version
+        Order updatedOrder = orderRepository.saveAndFlush(order);
         log.info("Order {} status updated to {}", orderId, status);
+
+        if (status == OrderStatus.CANCELLED && holdsStock(previousStatus)) {
+            releaseStockAfterCommit(order.getOrderNumber());
+        }
         
         return mapToOrderResponse(updatedOrder);
     }
 
-    @Override
-    @Transactional
-    public OrderResponse cancelOrder(Long orderId) {
+    private OrderResponse applyCancellation(Long orderId) {
         log.info("Cancelling order: {}", orderId);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
+
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            return mapToOrderResponse(order);
+        }
         
         if (!canBeCancelled(order.getStatus())) {
             throw new IllegalArgumentException(
@@ -161,74 +407,261 @@ public class OrderServiceImpl implements OrderService {
         }
         
         order.setStatus(OrderStatus.CANCELLED);
-        Order cancelledOrder = orderRepository.save(order);
+        Order cancelledOrder = orderRepository.saveAndFlush(order);
         log.info("Order {} cancelled successfully", orderId);
+
+        releaseStockAfterCommit(order.getOrderNumber());
         
         return mapToOrderResponse(cancelledOrder);
     }
 
     /**
-     * Validates all products in the order request and returns validated product data.
-     * This method performs fail-fast validation before any order creation.
+     * Validates all products in the order request and returns their catalog data.
+     * Name and price come from the near-cache; stock and active status are enforced
+     * by the stock reservation.
      */
     private Map<Long, ProductDto> validateAndFetchProducts(List<OrderItemRequest> items) {
         log.debug("Validating {} products for order", items.size());
 
-        Map<Long, ProductDto> productMap = items.stream()
-                .map(OrderItemRequest::getProductId)
-                .distinct()
-                .map(this::fetchAndValidateProduct)
-                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+        List<Long> productIds = distinctProductIds(items);
 
-        // Validate stock for each item
-        for (OrderItemRequest item : items) {
-            ProductDto product = productMap.get(item.getProductId());
-            validateStock(product, item.getQuantity());
-        }
+        // Cache miss sẽ gọi Product Service; throw ProductServiceUnavailableException nếu Product Service không available
+        Map<Long, ProductDto> productMap = productCatalogCache.getProducts(productIds);
+        validateProducts(productIds, productMap);
 
         log.debug("All products validated successfully");
         return productMap;
     }
 
+    private List<Long> distinctProductIds(List<OrderItemRequest> items) {
+        return items.stream()
+                .map(OrderItemRequest::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private void validateProducts(List<Long> productIds, Map<Long, ProductDto> productMap) {
+        for (Long productId : productIds) {
+            validateProduct(productId, productMap.get(productId));
+        }
+    }
+
     /**
-     * Fetches a product from Product Service and validates its availability.
+     * Validates a product returned by the batch lookup.
      * Throws ProductNotFoundException if product doesn't exist.
-     * Throws ProductServiceUnavailableException if Product Service is down.
+     * Inactive products are rejected by the stock reservation.
      */
-    private ProductDto fetchAndValidateProduct(Long productId) {
-        log.debug("Fetching product: {}", productId);
-        
-        // ProductServiceClient sẽ throw exception nếu:
-        // - Product Service không available -> ProductServiceUnavailableException
-        // - Product không tồn tại -> ProductNotFoundException (từ ErrorDecoder)
-        ProductDto product = productServiceClient.getProductById(productId);
-        
-        // Null check phòng trường hợp response rỗng
+    private void validateProduct(Long productId, ProductDto product) {
+        // Batch lookup bỏ qua các product không tồn tại
         if (product == null) {
             throw new ProductNotFoundException(productId);
         }
+    }
+
+    /**
+     * Reserves stock for every item in a single atomic call to Product Service.
+     * Product Service decrements stock with a conditional update per line, so two orders
+     * can no longer both pass a stock check and oversell. If this transaction rolls back,
+     * the reservation is released again. The release is registered before the call: a call
+     * that times out may still have reserved, and releasing an unknown reservation is a no-op.
+     * A reservation that reaches Product Service after its release expires there instead;
+     * the caller holds the reservation before committing, so a placed order's never does.
+     */
+    private void reserveStock(String orderNumber, List<OrderItemRequest> items) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    releaseStock(orderNumber);
+                }
+            }
+        });
+
+        requestReservation(orderNumber, items);
+        log.debug("Stock reserved for order {}", orderNumber);
+    }
+
+    /**
+     * Calls Product Service to reserve stock and maps a rejected reservation to its domain
+     * exception. Releasing the reservation on failure is up to the caller.
+     */
+    private void requestReservation(String orderNumber, List<OrderItemRequest> items) {
+        StockReservationRequest reservationRequest = StockReservationRequest.builder()
+                .reservationId(orderNumber)
+                .items(items.stream()
+                        .map(item -> StockReservationRequest.Item.builder()
+                                .productId(item.getProductId())
+                                .quantity(item.getQuantity())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+
+        StockReservationDto reservation = productServiceClient.reserveStock(reservationRequest);
+        if (reservation == null) {
+            throw new ProductServiceUnavailableException("Product Service returned no stock reservation");
+        }
+        if (!reservation.isSuccess()) {
+            throw toReservationException(reservation);
+        }
+    }
+
+    /**
+     * Builds a PENDING order whose items are priced from the validated product data.
+     */
+    private Order buildOrder(String orderNumber, CreateOrderRequest request, Map<Long, ProductDto> products) {
+        Order order = Order.builder()
+                .orderNumber(orderNumber)
+                .userId(request.getUserId())
+                .status(OrderStatus.PENDING)
+                .shippingAddress(request.getShippingAddress())
+                .phoneNumber(request.getPhoneNumber())
+                .notes(request.getNotes())
+                .items(new ArrayList<>())
+                .build();
+
+        for (OrderItemRequest itemRequest : request.getItems()) {
+            ProductDto product = products.get(itemRequest.getProductId());
+            
+            OrderItem orderItem = OrderItem.builder()
+                    .productId(product.getId())
+                    .productName(product.getName())
+                    .unitPrice(product.getPrice())
+                    .quantity(itemRequest.getQuantity())
+                    .subtotal(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())))
+                    .build();
+            
+            order.addItem(orderItem);
+        }
+
+        order.calculateTotalAmount();
+        return order;
+    }
+
+    /**
+     * Inserts the orders of a bulk request and records their outbox events.
+     * Orders and items go out in JDBC batches of hibernate.jdbc.batch_size.
+     */
+    private List<OrderResponse> persistOrders(List<Order> orders) {
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        savedOrders.forEach(order -> eventPublisher.publishEvent(new OrderCreatedDomainEvent(this, order)));
+        holdReservations(savedOrders);
+        return savedOrders.stream()
+                .map(this::mapToOrderResponse)
+                .collect(Collectors.toList());
+    }
 
-        // Validate product is active
-        if (product.getActive() == null || !product.getActive()) {
-            throw new ProductInactiveException(productId);
+    /**
+     * Holds the reservations of a bulk request concurrently, before its transaction commits.
+     * Any failure rolls the whole batch back, and the caller releases every reservation.
+     */
+    private void holdReservations(List<Order> orders) {
+        List<CompletableFuture<Void>> holds = orders.stream()
+                .map(order -> remoteCallExecutor.submitCompletable(
+                        () -> productServiceClient.holdStockReservation(order.getOrderNumber())))
+                .collect(Collectors.toList());
+        try {
+            CompletableFuture.allOf(holds.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex);
         }
+    }
 
-        return product;
+    /**
+     * Confirms the reservations of the given bulk items concurrently and returns the indexes
+     * that succeeded; the others get a failure result.
+     */
+    private List<Integer> confirmReservations(List<Integer> indexes, List<BulkUpdateOrderStatusRequest.Item> items,
+                                              Map<Long, Order> orders,
+                                              List<BulkItemResult<OrderStatusResponse>> results) {
+        List<CompletableFuture<StockReservationDto>> confirmations = indexes.stream()
+                .map(i -> orders.get(items.get(i).getOrderId()).getOrderNumber())
+                .map(orderNumber -> remoteCallExecutor.submitCompletable(
+                        () -> productServiceClient.confirmStockReservation(orderNumber)))
+                .collect(Collectors.toList());
+
+        List<Integer> confirmed = new ArrayList<>(indexes.size());
+        for (int j = 0; j < indexes.size(); j++) {
+            int index = indexes.get(j);
+            try {
+                confirmations.get(j).join();
+                confirmed.add(index);
+            } catch (CompletionException ex) {
+                RuntimeException cause = unwrap(ex);
+                results.set(index, BulkItemResult.failure(index, failureStatus(cause), cause.getMessage()));
+            }
+        }
+        return confirmed;
     }
 
     /**
-     * Validates that sufficient stock is available for the requested quantity.
+     * Maps the first rejected reservation line to the matching domain exception.
      */
-    private void validateStock(ProductDto product, Integer requestedQuantity) {
-        Integer availableStock = product.getStock() != null ? product.getStock() : 0;
-        
-        if (availableStock < requestedQuantity) {
-            throw new InsufficientStockException(
-                    product.getId(), 
-                    requestedQuantity, 
-                    availableStock
-            );
+    private RuntimeException toReservationException(StockReservationDto reservation) {
+        StockReservationDto.Line failed = reservation.getLines().stream()
+                .filter(line -> !line.isReserved())
+                .findFirst()
+                .orElseThrow(() -> new ProductServiceUnavailableException(
+                        "Stock reservation " + reservation.getReservationId() + " was rejected"));
+
+        if (StockReservationDto.PRODUCT_NOT_FOUND.equals(failed.getFailureReason())) {
+            return new ProductNotFoundException(failed.getProductId());
+        }
+        if (StockReservationDto.PRODUCT_INACTIVE.equals(failed.getFailureReason())) {
+            return new ProductInactiveException(failed.getProductId());
         }
+        return new InsufficientStockException(
+                failed.getProductId(),
+                failed.getQuantity(),
+                failed.getAvailableStock() != null ? failed.getAvailableStock() : 0
+        );
+    }
+
+    private void releaseStockAfterCommit(String orderNumber) {
+        afterCommit(() -> releaseStock(orderNumber), "release stock reservation", orderNumber);
+    }
+
+    /**
+     * Releases a stock reservation. Failures are logged rather than thrown, since the
+     * order outcome is already decided when this runs.
+     */
+    private void releaseStock(String orderNumber) {
+        try {
+            productServiceClient.releaseStockReservation(orderNumber);
+            log.info("Stock reservation released for order {}", orderNumber);
+        } catch (Exception ex) {
+            log.error("Failed to release stock reservation for order {}: {}", orderNumber, ex.getMessage());
+        }
+    }
+
+    /**
+     * Runs a Product Service call once the current transaction has committed,
+     * so stock never moves for a status change that was rolled back.
+     */
+    private void afterCommit(Runnable action, String description, String orderNumber) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (Exception ex) {
+                    log.error("Failed to {} for order {}: {}", description, orderNumber, ex.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Like afterCommit, but hands the call to the remote-call executor so a bulk change
+     * does not make the request wait for one Product Service call per order.
+     */
+    private void afterCommitAsync(Runnable action, String description, String orderNumber) {
+        afterCommit(() -> remoteCallExecutor.execute(() -> {
+            try {
+                action.run();
+            } catch (Exception ex) {
+                log.error("Failed to {} for order {}: {}", description, orderNumber, ex.getMessage());
+            }
+        }), description, orderNumber);
     }
 
     /**
@@ -259,27 +692,106 @@ public class OrderServiceImpl implements OrderService {
     }
 
     /**
-     * Generates a unique order number.
+     * Waits for the concurrent user validation and rethrows its domain exception, if any.
      */
-    private String generateOrderNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String uniqueId = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        return "ORD-" + timestamp + "-" + uniqueId;
+    private void awaitUserValidation(CompletableFuture<Void> userValidation) {
+        try {
+            userValidation.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
     }
 
     /**
      * Validates that the status transition is allowed.
      */
     private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
-        // Define valid transitions
+        if (!canTransition(currentStatus, newStatus)) {
+            throw new IllegalArgumentException(transitionError(currentStatus));
+        }
+    }
+
+    /**
+     * Defines the valid transitions: CANCELLED and REFUNDED are final,
+     * DELIVERED can only move to REFUNDED.
+     */
+    private boolean canTransition(OrderStatus currentStatus, OrderStatus newStatus) {
         if (currentStatus == OrderStatus.CANCELLED || currentStatus == OrderStatus.REFUNDED) {
-            throw new IllegalArgumentException(
-                    "Cannot change status of a " + currentStatus + " order");
+            return false;
         }
-        
-        if (currentStatus == OrderStatus.DELIVERED && newStatus != OrderStatus.REFUNDED) {
-            throw new IllegalArgumentException(
-                    "Delivered orders can only be transitioned to REFUNDED status");
+        return currentStatus != OrderStatus.DELIVERED || newStatus == OrderStatus.REFUNDED;
+    }
+
+    private String transitionError(OrderStatus currentStatus) {
+        if (currentStatus == OrderStatus.DELIVERED) {
+            return "Delivered orders can only be transitioned to REFUNDED status";
+        }
+        return "Cannot change status of a " + currentStatus + " order";
+    }
+
+    private BulkItemResult<OrderResponse> toFailure(int index, RuntimeException ex) {
+        return BulkItemResult.failure(index, failureStatus(ex), ex.getMessage());
+    }
+
+    /**
+     * HTTP status for a failed bulk item, matching what GlobalExceptionHandler
+     * answers for the same exception on the single-order endpoints.
+     */
+    private int failureStatus(RuntimeException ex) {
+        if (ex instanceof OrderNotFoundException) {
+            return 404;
+        }
+        if (ex instanceof ProductServiceUnavailableException || ex instanceof UserServiceUnavailableException) {
+            return 503;
+        }
+        if (ex instanceof OptimisticLockingFailureException || ex instanceof StockReservationReleasedException) {
+            return 409;
+        }
+        if (ex instanceof ProductNotFoundException || ex instanceof UserNotFoundException
+                || ex instanceof InsufficientStockException || ex instanceof ProductInactiveException
+                || ex instanceof UserInactiveException || ex instanceof IllegalArgumentException) {
+            return 400;
+        }
+        return 500;
+    }
+
+    private RuntimeException unwrap(CompletionException ex) {
+        return ex.getCause() instanceof RuntimeException cause ? cause : ex;
+    }
+
+    /**
+     * Runs an idempotent update in a fresh transaction per attempt, retrying a bounded number
+     * of times when another request changed the same order first. The last conflict is
+     * rethrown and reported as 409.
+     */
+    private <T> T retryOnConflict(String operation, Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException ex) {
+                if (i >= optimisticLockMaxAttempts) {
+                    log.warn("Giving up on {} after {} conflicting attempts", operation, i);
+                    throw ex;
+                }
+                log.info("Concurrent modification during {}, retrying (attempt {}/{})",
+                        operation, i + 1, optimisticLockMaxAttempts);
+                backOff(i);
+            }
+        }
+    }
+
+    /**
+     * Short randomized pause so competing retries do not collide again in lockstep.
+     */
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 25) * attempt);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying", ex);
         }
     }
 
@@ -290,6 +802,60 @@ public class OrderServiceImpl implements OrderService {
         return status == OrderStatus.PENDING || status == OrderStatus.CONFIRMED;
     }
 
+    /**
+     * Whether an order in this status still holds its stock reservation. Once shipped the goods
+     * have left, so cancelling from a later status must not return the stock.
+     */
+    private boolean holdsStock(OrderStatus status) {
+        return status == OrderStatus.PENDING || status == OrderStatus.CONFIRMED;
+    }
+
+    private List<Order> findPageByUserIdAfter(Long userId, OrderCursor cursor, Pageable limit) {
+        return orderRepository.findPageByUserIdAfter(userId, cursor.getCreatedAt(), cursor.getId(), limit);
+    }
+
+    private List<Order> findPageByStatusAfter(OrderStatus status, OrderCursor cursor, Pageable limit) {
+        return orderRepository.findPageByStatusAfter(status, cursor.getCreatedAt(), cursor.getId(), limit);
+    }
+
+    /**
+     * Applies the default page size and caps requests at MAX_PAGE_SIZE.
+     */
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Builds a page from a result fetched with one extra row.
+     * Items of all orders on the page are loaded in one batch (see Order.items).
+     */
+    private CursorPageResponse<OrderResponse> toCursorPage(List<Order> orders, int pageSize) {
+        boolean hasNext = orders.size() > pageSize;
+        List<Order> page = hasNext ? orders.subList(0, pageSize) : orders;
+
+        return CursorPageResponse.<OrderResponse>builder()
+                .items(page.stream().map(this::mapToOrderResponse).collect(Collectors.toList()))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? OrderCursor.of(page.get(page.size() - 1)).encode() : null)
+                .build();
+    }
+
+    private OrderStatusResponse toStatusResponse(Order order, OrderStatus status, Long version) {
+        return OrderStatusResponse.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .status(status)
+                .version(version)
+                .build();
+    }
+
     /**
      * Maps Order entity to OrderResponse DTO.
      */
@@ -317,6 +883,7 @@ public class OrderServiceImpl implements OrderService {
                 .items(itemResponses)
                 .createdAt(order.getCreatedAt())
                 .updatedAt(order.getUpdatedAt())
+                .version(order.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,42 @@
+-- Baseline schema for order-service.
+-- IF NOT EXISTS keeps this safe on databases previously created by ddl-auto=update.
+
+-- Create orders table
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGSERIAL PRIMARY KEY,
+    order_number VARCHAR(255) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    total_amount DECIMAL(19,2) NOT NULL,
+    shipping_address VARCHAR(500),
+    phone_number VARCHAR(20),
+    notes VARCHAR(500),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+
+-- Create order_items table
+CREATE TABLE IF NOT EXISTS order_items (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    unit_price DECIMAL(19,2) NOT NULL,
+    quantity INTEGER NOT NULL,
+    subtotal DECIMAL(19,2) NOT NULL,
+    FOREIGN KEY (order_id) REFERENCES orders(id)
+);
+
+-- Create order_outbox table (transactional outbox relayed to Kafka)
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP(6),
+    sent_at TIMESTAMP(6)
+);
@@ -0,0 +1,22 @@
+-- Indexes matching the query shapes in OrderRepository, OrderItemRepository and OrderOutboxRepository.
+
+-- findByUserId and keyset pages by user: WHERE user_id = ? ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_orders_user_created ON orders (user_id, created_at DESC, id DESC);
+
+-- findByStatus, keyset pages and exports by status: WHERE status = ? ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_orders_status_created ON orders (status, created_at DESC, id DESC);
+
+-- findByUserIdAndStatus: WHERE user_id = ? AND status = ?
+CREATE INDEX IF NOT EXISTS idx_orders_user_status ON orders (user_id, status);
+
+-- findOrdersByDateRange: WHERE created_at BETWEEN ? AND ?
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders (created_at);
+
+-- findByOrderId, batch loading of Order.items and FK checks on delete
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
+
+-- findByProductId
+CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items (product_id);
+
+-- Relay poll: WHERE sent_at IS NULL ORDER BY id; stays small because sent rows drop out
+CREATE INDEX IF NOT EXISTS idx_order_outbox_pending ON order_outbox (id) WHERE sent_at IS NULL;
@@ -0,0 +1,2 @@
+-- Optimistic locking for orders: every update checks and increments the row version
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,14 @@
+-- Idempotency-Key dedupe store for POST /orders.
+-- A row is claimed (IN_PROGRESS) before the order is created and completed in the
+-- same transaction as the order insert, so a committed order always has its stored response.
+CREATE TABLE IF NOT EXISTS order_idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response_body TEXT,
+    created_at TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6),
+    expires_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_idempotency_keys_expires_at ON order_idempotency_keys(expires_at);
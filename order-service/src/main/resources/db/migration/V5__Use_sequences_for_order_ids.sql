@@ -0,0 +1,19 @@
+-- Sequence-generated ids for orders and order_items.
+-- IDENTITY columns make Hibernate insert every row on its own to read the generated key,
+-- which defeats hibernate.jdbc.batch_size. With INCREMENT BY 50 and the pooled-lo
+-- optimizer, one nextval reserves ids [value, value + 49] for the entity's allocationSize.
+-- Sequences start after the current maximum id so existing rows are never reused.
+-- Schemas created by Hibernate use GENERATED BY DEFAULT AS IDENTITY instead of BIGSERIAL;
+-- an identity column rejects SET DEFAULT and owns its sequence, so the identity is dropped first
+-- (a no-op for BIGSERIAL columns, whose implicit *_id_seq is dropped afterwards).
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 1, false);
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT nextval('orders_seq');
+DROP SEQUENCE IF EXISTS orders_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', COALESCE((SELECT MAX(id) FROM order_items), 0) + 1, false);
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT nextval('order_items_seq');
+DROP SEQUENCE IF EXISTS order_items_id_seq;
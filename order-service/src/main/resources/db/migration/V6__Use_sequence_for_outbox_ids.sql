@@ -0,0 +1,8 @@
+-- Outbox rows are written once per order, so bulk order inserts need batched outbox inserts too.
+-- Same scheme as V5: INCREMENT BY 50 for the pooled-lo optimizer, starting after the current maximum id,
+-- dropping the identity first when the column was created as GENERATED BY DEFAULT AS IDENTITY.
+CREATE SEQUENCE IF NOT EXISTS order_outbox_seq INCREMENT BY 50;
+SELECT setval('order_outbox_seq', COALESCE((SELECT MAX(id) FROM order_outbox), 0) + 1, false);
+ALTER TABLE order_outbox ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_outbox ALTER COLUMN id SET DEFAULT nextval('order_outbox_seq');
+DROP SEQUENCE IF EXISTS order_outbox_id_seq;
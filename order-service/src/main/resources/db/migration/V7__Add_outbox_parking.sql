@@ -0,0 +1,10 @@
+-- Rows that keep failing are parked after app.outbox.max-attempts so they stop blocking the relay.
+-- A parked row is re-driven by clearing parked_at (and resetting attempts).
+ALTER TABLE order_outbox ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP(6);
+
+-- Relay poll: WHERE sent_at IS NULL AND parked_at IS NULL ORDER BY id
+DROP INDEX IF EXISTS idx_order_outbox_pending;
+CREATE INDEX IF NOT EXISTS idx_order_outbox_pending ON order_outbox (id) WHERE sent_at IS NULL AND parked_at IS NULL;
+
+-- Retention purge: WHERE sent_at < ?
+CREATE INDEX IF NOT EXISTS idx_order_outbox_sent_at ON order_outbox (sent_at) WHERE sent_at IS NOT NULL;
@@ -0,0 +1,4 @@
+-- Random token of the execution holding an IN_PROGRESS claim. complete and the release
+-- match on it, so an owner whose claim was taken over after the lease cannot overwrite
+-- or delete the new owner's row. Rows claimed before this column existed stay NULL.
+ALTER TABLE order_idempotency_keys ADD COLUMN IF NOT EXISTS owner_token VARCHAR(36);
@@ -0,0 +1,4 @@
+-- The relay claims a batch in one short transaction and records the results in another, sending
+-- to Kafka in between without holding row locks. claimed_until hides claimed rows from other
+-- replicas; if a replica dies mid-batch the claim lapses and the rows are sent again.
+ALTER TABLE order_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP(6);
@@ -0,0 +1,121 @@
+package com.kidfavor.orderservice.config;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.OperationException;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.Response;
+import com.ecwid.consul.v1.kv.model.PutParams;
+import com.ecwid.consul.v1.session.model.NewSession;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConsulNodeIdLeaseTest {
+
+    private static final String PREFIX = "order-service/order-number/node-ids";
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final ConsulClient consul = mock(ConsulClient.class);
+    private final AtomicLong nanos = new AtomicLong();
+    /**
+     * Key to owning session, as Consul would keep it.
+     */
+    private final Map<String, String> locks = new HashMap<>();
+    private int sessions;
+
+    @Test
+    void replicasLeaseDistinctIds() {
+        stubConsul();
+
+        int first = newLease("a").acquire();
+        int second = newLease("b").acquire();
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(locks).hasSize(2).containsKeys(PREFIX + "/" + first, PREFIX + "/" + second);
+    }
+
+    @Test
+    void failsWhenEveryIdIsLeased() {
+        stubConsul();
+        for (int id = 0; id <= 1023; id++) {
+            locks.put(PREFIX + "/" + id, "other");
+        }
+
+        assertThatThrownBy(() -> newLease("a").acquire())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("are leased");
+    }
+
+    @Test
+    void leaseStopsCountingAsHeldOneTtlAfterTheLastRenewal() {
+        stubConsul();
+        ConsulNodeIdLease lease = newLease("a");
+        lease.acquire();
+
+        nanos.addAndGet(TTL.toNanos() - 1);
+        lease.checkHeld();
+
+        when(consul.renewSession(anyString(), any(QueryParams.class))).thenThrow(new RuntimeException("timeout"));
+        lease.renew();
+        nanos.addAndGet(1);
+
+        assertThatThrownBy(lease::checkHeld).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void successfulRenewalExtendsTheLease() {
+        stubConsul();
+        ConsulNodeIdLease lease = newLease("a");
+        lease.acquire();
+
+        nanos.addAndGet(TTL.toNanos() - 1);
+        lease.renew();
+        nanos.addAndGet(TTL.toNanos() - 1);
+
+        lease.checkHeld();
+    }
+
+    @Test
+    void expiredSessionLeasesTheSameIdAgain() {
+        stubConsul();
+        ConsulNodeIdLease lease = newLease("a");
+        int nodeId = lease.acquire();
+        // Consul dropped the session and deleted its key
+        locks.clear();
+        when(consul.renewSession(anyString(), any(QueryParams.class)))
+                .thenThrow(new OperationException(404, "Not Found", "Session id not found"));
+
+        nanos.addAndGet(TTL.toNanos());
+        lease.renew();
+
+        lease.checkHeld();
+        assertThat(lease.getNodeId()).isEqualTo(nodeId);
+        assertThat(locks).containsKey(PREFIX + "/" + nodeId);
+    }
+
+    private ConsulNodeIdLease newLease(String owner) {
+        return new ConsulNodeIdLease(consul, PREFIX, TTL, owner, nanos::get);
+    }
+
+    private void stubConsul() {
+        when(consul.sessionCreate(any(NewSession.class), eq(QueryParams.DEFAULT)))
+                .thenAnswer(invocation -> new Response<>("session-" + ++sessions, 0L, false, 0L));
+        when(consul.setKVValue(anyString(), anyString(), any(PutParams.class))).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            String session = invocation.<PutParams>getArgument(2).getAcquireSession();
+            boolean acquired = locks.putIfAbsent(key, session) == null;
+            return new Response<>(acquired, 0L, false, 0L);
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.kidfavor.orderservice.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderCursorTest {
+
+    @Test
+    void encodeThenDecodeKeepsCreatedAtAndId() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 17, 13, 45, 12, 123_456_000);
+
+        OrderCursor decoded = OrderCursor.decode(OrderCursor.of(createdAt, 42L).encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void roundTripsTimestampsWithoutSeconds() {
+        // LocalDateTime.toString() drops zero seconds ("2024-01-01T00:00")
+        LocalDateTime midnight = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        OrderCursor decoded = OrderCursor.decode(OrderCursor.of(midnight, Long.MAX_VALUE).encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(midnight);
+        assertThat(decoded.getId()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafeWithoutPadding() {
+        String encoded = OrderCursor.of(LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_999), 7L).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsInvalidBase64() {
+        assertThatThrownBy(() -> OrderCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void rejectsCursorWithoutSeparator() {
+        assertThatThrownBy(() -> OrderCursor.decode(encodeRaw("2024-01-01T00:00")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void rejectsMalformedTimestamp() {
+        assertThatThrownBy(() -> OrderCursor.decode(encodeRaw("yesterday|1")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void rejectsNonNumericId() {
+        assertThatThrownBy(() -> OrderCursor.decode(encodeRaw("2024-01-01T00:00|abc")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
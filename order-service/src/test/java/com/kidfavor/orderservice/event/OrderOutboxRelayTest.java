@@ -0,0 +1,152 @@
+package com.kidfavor.orderservice.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kidfavor.orderservice.entity.OrderOutboxEvent;
+import com.kidfavor.orderservice.repository.EmbeddedPostgresConfig;
+import com.kidfavor.orderservice.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The relay must not hold a transaction or row locks while it waits for the broker.
+ * Runs on an embedded PostgreSQL with the Flyway migrations; every step commits.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderOutboxRelay.class, EmbeddedPostgresConfig.class, OrderOutboxRelayTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderOutboxRelayTest {
+
+    @MockBean
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private OrderOutboxRelay relay;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void sendsWithoutHoldingTheClaimTransaction() throws Exception {
+        Long id = insertEvent("ORD-RELAY-1");
+        List<Map<String, Object>> duringSend = new ArrayList<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+            // Fails if the claim transaction still held the row lock
+            duringSend.add(jdbcTemplate.queryForMap(
+                    "SELECT claimed_until, sent_at FROM order_outbox WHERE id = ? FOR UPDATE NOWAIT", id));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        relay.relayPendingEvents();
+
+        assertThat(duringSend).singleElement().satisfies(row -> {
+            assertThat(row.get("claimed_until")).isNotNull();
+            assertThat(row.get("sent_at")).isNull();
+        });
+        OrderOutboxEvent event = outboxRepository.findById(id).orElseThrow();
+        assertThat(event.getSentAt()).isNotNull();
+        assertThat(event.getClaimedUntil()).isNull();
+    }
+
+    @Test
+    void failedSendReleasesTheClaimAndCountsTheAttempt() throws Exception {
+        Long id = insertEvent("ORD-RELAY-2");
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        relay.relayPendingEvents();
+
+        OrderOutboxEvent event = outboxRepository.findById(id).orElseThrow();
+        assertThat(event.getSentAt()).isNull();
+        assertThat(event.getClaimedUntil()).isNull();
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getLastError()).isEqualTo("broker unavailable");
+    }
+
+    @Test
+    void skipsRowsClaimedByAnotherRelay() throws Exception {
+        Long id = insertEvent("ORD-RELAY-3");
+        jdbcTemplate.update("UPDATE order_outbox SET claimed_until = ? WHERE id = ?",
+                LocalDateTime.now().plusMinutes(1), id);
+
+        relay.relayPendingEvents();
+
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+        assertThat(outboxRepository.findById(id).orElseThrow().getSentAt()).isNull();
+    }
+
+    private Long insertEvent(String orderNumber) throws Exception {
+        OrderPlacedEvent event = OrderPlacedEvent.builder()
+                .orderId(1L)
+                .orderNumber(orderNumber)
+                .userId(1L)
+                .build();
+        return outboxRepository.saveAndFlush(OrderOutboxEvent.builder()
+                .aggregateId(1L)
+                .eventType("ORDER_PLACED")
+                .topic("order-placed")
+                .messageKey(orderNumber)
+                .payload(objectMapper.writeValueAsString(event))
+                .build()).getId();
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.kidfavor.orderservice.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kidfavor.orderservice.client.ProductCatalogCache;
+import com.kidfavor.orderservice.config.KafkaConsumerConfig;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The near-cache listener reads every partition without joining a consumer group.
+ */
+@SpringJUnitConfig
+@EmbeddedKafka(partitions = 2, topics = "product-changed")
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.kafka.topics.product-changed=product-changed"
+})
+class ProductChangedListenerTest {
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Test
+    void evictsFromEveryPartitionWithoutAConsumerGroup() throws Exception {
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, 2);
+        }
+
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new StringSerializer()));
+        template.send("product-changed", 0, "42", "{\"productId\":42,\"version\":3,\"changedFields\":[\"price\"]}");
+        template.send("product-changed", 1, "43", "{\"productId\":43,\"version\":5,\"changedFields\":[\"name\"]}");
+        template.flush();
+
+        verify(productCatalogCache, timeout(10_000)).invalidate(42L, 3L);
+        verify(productCatalogCache, timeout(10_000)).invalidate(43L, 5L);
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            assertThat(admin.listConsumerGroups().all().get()).isEmpty();
+        }
+    }
+
+    @Configuration
+    @EnableKafka
+    @Import({KafkaConsumerConfig.class, ProductChangedListener.class})
+    static class Config {
+
+        @Bean
+        KafkaAdmin kafkaAdmin(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+            return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+
+        @Bean
+        ProductCatalogCache productCatalogCache() {
+            return mock(ProductCatalogCache.class);
+        }
+    }
+}
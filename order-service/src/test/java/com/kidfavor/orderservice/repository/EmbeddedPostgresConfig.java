@@ -0,0 +1,45 @@
+package com.kidfavor.orderservice.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A real PostgreSQL for tests that depend on its planner or on the PostgreSQL-only migrations.
+ * One server is started per test JVM and shared by every context; Flyway migrates it once.
+ * Use with {@code @AutoConfigureTestDatabase(replace = NONE)}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedPostgresConfig {
+
+    private static EmbeddedPostgres postgres;
+
+    @Bean
+    DataSource dataSource() {
+        return server().getPostgresDatabase();
+    }
+
+    private static synchronized EmbeddedPostgres server() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to start embedded PostgreSQL", ex);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(EmbeddedPostgresConfig::stop));
+        }
+        return postgres;
+    }
+
+    private static void stop() {
+        try {
+            postgres.close();
+        } catch (IOException ignored) {
+            // The JVM is exiting; the data directory is temporary
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.kidfavor.orderservice.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Inserting one order with its items on PostgreSQL, the way Hibernate does it with IDENTITY ids
+ * (one round trip per row to read the generated key) and with the V5 sequences and the pooled-lo
+ * optimizer (one nextval per 50 ids, rows sent in JDBC batches of hibernate.jdbc.batch_size).
+ * Each operation is one committed order.
+ * <pre>
+ * mvn -P benchmark test -Djmh.args="OrderInsertBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderInsertBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int BATCH_SIZE = 20;
+
+    private static final String ORDER_COLUMNS =
+            "(order_number, user_id, status, total_amount, created_at, updated_at)";
+    private static final String ITEM_COLUMNS =
+            "(order_id, product_id, product_name, unit_price, quantity, subtotal)";
+
+    @Param({"5", "50"})
+    private int items;
+
+    private EmbeddedPostgres postgres;
+    private Connection connection;
+    private final AtomicLong orderNumbers = new AtomicLong();
+    private final PooledLo orderIds = new PooledLo("sequence_ids.orders_seq");
+    private final PooledLo itemIds = new PooledLo("sequence_ids.order_items_seq");
+
+    @Setup(Level.Trial)
+    public void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        connection = postgres.getPostgresDatabase().getConnection();
+        try (Statement statement = connection.createStatement()) {
+            // Before V5: BIGSERIAL ids
+            statement.execute("CREATE SCHEMA identity_ids");
+            statement.execute("CREATE TABLE identity_ids.orders (id BIGSERIAL PRIMARY KEY, order_number VARCHAR(255) NOT NULL UNIQUE,"
+                    + " user_id BIGINT NOT NULL, status VARCHAR(255) NOT NULL, total_amount DECIMAL(19,2) NOT NULL,"
+                    + " created_at TIMESTAMP(6), updated_at TIMESTAMP(6))");
+            statement.execute("CREATE TABLE identity_ids.order_items (id BIGSERIAL PRIMARY KEY,"
+                    + " order_id BIGINT NOT NULL REFERENCES identity_ids.orders(id), product_id BIGINT NOT NULL,"
+                    + " product_name VARCHAR(255) NOT NULL, unit_price DECIMAL(19,2) NOT NULL, quantity INTEGER NOT NULL,"
+                    + " subtotal DECIMAL(19,2) NOT NULL)");
+            // After V5: ids handed out by the application from sequences incremented by 50
+            statement.execute("CREATE SCHEMA sequence_ids");
+            statement.execute("CREATE SEQUENCE sequence_ids.orders_seq INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("CREATE SEQUENCE sequence_ids.order_items_seq INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("CREATE TABLE sequence_ids.orders (LIKE identity_ids.orders INCLUDING CONSTRAINTS INCLUDING INDEXES)");
+            statement.execute("CREATE TABLE sequence_ids.order_items (LIKE identity_ids.order_items INCLUDING CONSTRAINTS INCLUDING INDEXES,"
+                    + " FOREIGN KEY (order_id) REFERENCES sequence_ids.orders(id))");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() throws Exception {
+        connection.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public long identity() throws SQLException {
+        long orderId;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO identity_ids.orders " + ORDER_COLUMNS + " VALUES (?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            bindOrder(insert, 1);
+            insert.executeUpdate();
+            orderId = generatedKey(insert);
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO identity_ids.order_items " + ITEM_COLUMNS + " VALUES (?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < items; i++) {
+                bindItem(insert, 1, orderId, i);
+                insert.executeUpdate();
+                generatedKey(insert);
+            }
+        }
+        connection.commit();
+        return orderId;
+    }
+
+    @Benchmark
+    public long sequencePooledLo() throws SQLException {
+        long orderId = orderIds.next();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO sequence_ids.orders (id, " + ORDER_COLUMNS.substring(1) + " VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            insert.setLong(1, orderId);
+            bindOrder(insert, 2);
+            insert.executeUpdate();
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO sequence_ids.order_items (id, " + ITEM_COLUMNS.substring(1) + " VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < items; i++) {
+                insert.setLong(1, itemIds.next());
+                bindItem(insert, 2, orderId, i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return orderId;
+    }
+
+    private void bindOrder(PreparedStatement insert, int first) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        insert.setString(first, "ORD-" + orderNumbers.incrementAndGet());
+        insert.setLong(first + 1, 42L);
+        insert.setString(first + 2, "PENDING");
+        insert.setBigDecimal(first + 3, BigDecimal.valueOf(items * 10L));
+        insert.setTimestamp(first + 4, now);
+        insert.setTimestamp(first + 5, now);
+    }
+
+    private static void bindItem(PreparedStatement insert, int first, long orderId, int index) throws SQLException {
+        insert.setLong(first, orderId);
+        insert.setLong(first + 1, index + 1L);
+        insert.setString(first + 2, "Product " + index);
+        insert.setBigDecimal(first + 3, BigDecimal.TEN);
+        insert.setInt(first + 4, 1);
+        insert.setBigDecimal(first + 5, BigDecimal.TEN);
+    }
+
+    private static long generatedKey(PreparedStatement insert) throws SQLException {
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+
+    /**
+     * Hibernate's pooled-lo optimizer: the sequence value is the low end of a block of ids.
+     */
+    private final class PooledLo {
+
+        private final String sequence;
+        private long next;
+        private long limit;
+
+        private PooledLo(String sequence) {
+            this.sequence = sequence;
+        }
+
+        long next() throws SQLException {
+            if (next == limit) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT nextval('" + sequence + "')")) {
+                    rs.next();
+                    next = rs.getLong(1);
+                    limit = next + ALLOCATION_SIZE;
+                }
+            }
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.kidfavor.orderservice.repository;
+
+import com.kidfavor.orderservice.entity.OrderStatus;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The keyset page queries must be served by the V2 indexes in index order, with no sort.
+ * Runs on an embedded PostgreSQL with the Flyway migrations; the SQL Hibernate generates is
+ * explained with its arguments bound, in the order they appear in the statement.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EmbeddedPostgresConfig.class, OrderRepositoryQueryPlanTest.Config.class})
+class OrderRepositoryQueryPlanTest {
+
+    private static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertOrders() {
+        // 20,000 orders over 200 users and every status, one minute apart
+        jdbcTemplate.update("INSERT INTO orders (order_number, user_id, status, total_amount, created_at, updated_at, version) "
+                + "SELECT 'ORD-PLAN-' || g, g % 200, (ARRAY['PENDING','CONFIRMED','SHIPPED','DELIVERED','CANCELLED','REFUNDED'])[g % 6 + 1], "
+                + "10, now() - g * interval '1 minute', now(), 0 FROM generate_series(1, 20000) g");
+        jdbcTemplate.execute("ANALYZE orders");
+        statements.clear();
+    }
+
+    @Test
+    void firstPageByUserUsesUserIndex() {
+        orderRepository.findFirstPageByUserId(42L, PageRequest.of(0, 20));
+
+        // user_id, offset, limit
+        assertThat(explain(lastOrdersQuery(), "42", "0", "20"))
+                .contains("idx_orders_user_created")
+                .doesNotContain("Sort");
+    }
+
+    @Test
+    void nextPageByStatusUsesStatusIndex() {
+        orderRepository.findPageByStatusAfter(OrderStatus.PENDING, LocalDateTime.now().minusDays(1), 1_000L,
+                PageRequest.of(0, 20));
+
+        // status, cursor (created_at, id), offset, limit
+        String plan = explain(lastOrdersQuery(), "'PENDING'", "now() - interval '1 day'", "1000", "0", "20");
+        assertThat(plan)
+                .contains("idx_orders_status_created")
+                .doesNotContain("Sort");
+        // The cursor bounds the index range instead of filtering every row before it
+        assertThat(plan).containsPattern("Index Cond: .*status.*created_at");
+    }
+
+    private static String lastOrdersQuery() {
+        synchronized (statements) {
+            return statements.stream()
+                    .filter(sql -> sql.toLowerCase().contains("from orders"))
+                    .reduce((first, second) -> second)
+                    .orElseThrow(() -> new AssertionError("No query on orders was executed"));
+        }
+    }
+
+    private String explain(String sql, String... arguments) {
+        StringBuilder positional = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                positional.append('$').append(++parameters);
+            } else {
+                positional.append(c);
+            }
+        }
+        assertThat(parameters).as("parameters of %s", sql).isEqualTo(arguments.length);
+        jdbcTemplate.execute("PREPARE plan_check AS " + positional);
+        try {
+            return String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN EXECUTE plan_check(" + String.join(", ", arguments) + ")", String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE plan_check");
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        HibernatePropertiesCustomizer captureStatements() {
+            StatementInspector inspector = sql -> {
+                statements.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
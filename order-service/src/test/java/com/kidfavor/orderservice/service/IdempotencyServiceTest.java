@@ -0,0 +1,91 @@
+package com.kidfavor.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kidfavor.orderservice.repository.EmbeddedPostgresConfig;
+import com.kidfavor.orderservice.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays and expiry of Idempotency-Keys, on an embedded PostgreSQL with the Flyway migrations.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IdempotencyService.class, EmbeddedPostgresConfig.class, IdempotencyServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void clearKeys() {
+        idempotencyRecordRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void completedKeyIsReplayed() {
+        assertThat(run("key-replayed", "first")).isEqualTo("response-1");
+        assertThat(run("key-replayed", "first")).isEqualTo("response-1");
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void expiredKeyIsClaimedAgain() {
+        run("key-expired", "first");
+        jdbcTemplate.update("UPDATE order_idempotency_keys SET expires_at = ? WHERE idempotency_key = ?",
+                LocalDateTime.now().minusMinutes(1), "key-expired");
+
+        // Not purged yet, but expired: runs again, even with a different body
+        assertThat(run("key-expired", "second")).isEqualTo("response-2");
+        assertThat(run("key-expired", "second")).isEqualTo("response-2");
+
+        assertThat(executions).hasValue(2);
+        assertThat(idempotencyRecordRepository.findById("key-expired").orElseThrow().getExpiresAt())
+                .isAfter(LocalDateTime.now());
+    }
+
+    private String run(String key, String request) {
+        return idempotencyService.execute(key, request, String.class,
+                () -> "response-" + executions.incrementAndGet());
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.kidfavor.orderservice.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order number generation against the previous timestamp-plus-UUID format, single-threaded
+ * and with 8 threads sharing one generator. Run with -prof gc for allocations per number.
+ * <pre>
+ * mvn -P benchmark test -Djmh.args="SnowflakeOrderNumberGeneratorBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnowflakeOrderNumberGeneratorBenchmark {
+
+    private final SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1);
+
+    @Benchmark
+    public String snowflake() {
+        return generator.nextOrderNumber();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String snowflakeContended() {
+        return generator.nextOrderNumber();
+    }
+
+    /**
+     * The generator this replaced: a new formatter per call and a random UUID prefix.
+     */
+    @Benchmark
+    public String timestampAndUuid() {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        String uniqueId = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return "ORD-" + timestamp + "-" + uniqueId;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timestampAndUuidContended() {
+        return timestampAndUuid();
+    }
+}
@@ -0,0 +1,188 @@
+package com.kidfavor.orderservice.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final long START = Instant.parse("2025-06-01T12:00:00Z").toEpochMilli();
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+
+    private final MutableClock clock = new MutableClock(START);
+
+    @Test
+    void numbersAreUniqueAndIncreasingPerThreadUnderContention() throws Exception {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<List<Long>> task = () -> {
+                    start.await();
+                    List<Long> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                    return ids;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+
+            Set<Long> all = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                List<Long> ids = future.get();
+                assertThat(ids).isSorted().doesNotHaveDuplicates();
+                all.addAll(ids);
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void numbersSortInCreationOrderAsStrings() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1, clock);
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 100 == 0) {
+                clock.advance(1);
+            }
+            numbers.add(generator.nextOrderNumber());
+        }
+
+        assertThat(numbers).isSorted().doesNotHaveDuplicates();
+        assertThat(numbers).allMatch(number -> number.matches("ORD-[0-9A-HJKMNP-TV-Z]{13}"));
+    }
+
+    @Test
+    void clockMovingBackwardsKeepsTheLastTimestamp() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(3, clock);
+        long before = generator.nextId();
+
+        clock.advance(-5_000);
+        long afterRewind = generator.nextId();
+        long next = generator.nextId();
+
+        assertThat(afterRewind).isGreaterThan(before);
+        assertThat(next).isGreaterThan(afterRewind);
+        assertThat(timestamp(afterRewind)).isEqualTo(timestamp(before));
+        assertThat(sequence(afterRewind)).isEqualTo(sequence(before) + 1);
+
+        // Once the clock passes the last timestamp again, the sequence restarts
+        clock.advance(5_001);
+        long caughtUp = generator.nextId();
+        assertThat(timestamp(caughtUp)).isEqualTo(timestamp(before) + 1);
+        assertThat(sequence(caughtUp)).isZero();
+    }
+
+    @Test
+    void sequenceOverflowCarriesIntoTheNextMillisecond() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(0, clock);
+        long first = generator.nextId();
+        long last = first;
+        for (int i = 1; i <= 1 << SEQUENCE_BITS; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(last);
+            last = id;
+        }
+
+        assertThat(timestamp(last)).isEqualTo(timestamp(first) + 1);
+        assertThat(sequence(last)).isZero();
+    }
+
+    @Test
+    void nodeIdSeparatesReplicasInTheSameMillisecond() {
+        long a = new SnowflakeOrderNumberGenerator(1, clock).nextId();
+        long b = new SnowflakeOrderNumberGenerator(2, clock).nextId();
+
+        assertThat(a).isNotEqualTo(b);
+        assertThat(node(a)).isEqualTo(1);
+        assertThat(node(b)).isEqualTo(2);
+        assertThat(timestamp(a)).isEqualTo(timestamp(b));
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTenBits() {
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID).nextId()).isPositive();
+    }
+
+    @Test
+    void encodeIsFixedWidthBase32() {
+        assertThat(SnowflakeOrderNumberGenerator.encode(0)).isEqualTo("ORD-0000000000000");
+        assertThat(SnowflakeOrderNumberGenerator.encode(31)).isEqualTo("ORD-000000000000Z");
+        assertThat(SnowflakeOrderNumberGenerator.encode(32)).isEqualTo("ORD-0000000000010");
+        assertThat(SnowflakeOrderNumberGenerator.encode(Long.MAX_VALUE)).isEqualTo("ORD-7ZZZZZZZZZZZZ");
+    }
+
+    private static long timestamp(long id) {
+        return id >>> (NODE_BITS + SEQUENCE_BITS);
+    }
+
+    private static long node(long id) {
+        return (id >>> SEQUENCE_BITS) & ((1L << NODE_BITS) - 1);
+    }
+
+    private static long sequence(long id) {
+        return id & ((1L << SEQUENCE_BITS) - 1);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final AtomicLong millis;
+
+        MutableClock(long millis) {
+            this.millis = new AtomicLong(millis);
+        }
+
+        void advance(long delta) {
+            millis.addAndGet(delta);
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
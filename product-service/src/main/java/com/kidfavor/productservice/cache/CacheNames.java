@@ -0,0 +1,21 @@
+package com.kidfavor.productservice.cache;
+
+/**
+ * Names of the caches managed by {@link TwoLevelCacheManager}.
+ */
+public final class CacheNames {
+
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY = "category";
+    public static final String BRANDS = "brands";
+    public static final String BRAND = "brand";
+    public static final String PRODUCT = "product";
+
+    /**
+     * SpEL key under which whole-collection lookups (e.g. all categories) are cached.
+     */
+    public static final String ALL_KEY = "'all'";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,187 @@
+package com.kidfavor.productservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache with an in-process Caffeine tier (L1) in front of an optional shared Redis tier (L2).
+ * Reads try L1, then L2, then the value loader. The loader runs inside Caffeine's per-key
+ * computation, so concurrent misses on a cold key trigger a single database load.
+ * Writes and evictions go to both tiers and are broadcast through the
+ * {@link InvalidationPublisher} so other replicas drop their L1 copy.
+ * L2 failures are logged and treated as misses: Redis going away degrades to L1 + database.
+ * <p>
+ * L2 writes are not versioned. A replica that loads from the database just before another
+ * replica commits a change and evicts the key may write its older value to L2 after that
+ * eviction. Such a value stays in L2 until the entry's L2 TTL expires, and a replica that
+ * copies it into L1 keeps it for up to one L1 TTL more, so the staleness bound after a racing
+ * write is L2 TTL + L1 TTL (60s + 60s for products by default, see app.cache.redis.product-ttl).
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final InvalidationPublisher invalidationPublisher;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+
+    /**
+     * @param remote L2 cache, or {@code null} to run on L1 only
+     */
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         Cache remote,
+                         InvalidationPublisher invalidationPublisher,
+                         MeterRegistry meterRegistry) {
+        // Nulls (e.g. unknown ids) are cached in L1 only; they are evicted when the entity is created
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.remoteHits = remoteCounter(meterRegistry, name, "hit");
+        this.remoteMisses = remoteCounter(meterRegistry, name, "miss");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = String.valueOf(key);
+        Object value = local.getIfPresent(localKey);
+        if (value == null && remote != null) {
+            value = remoteLookup(localKey);
+            if (value != null) {
+                local.put(localKey, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = local.get(String.valueOf(key), localKey -> {
+            Object remoteValue = remote != null ? remoteLookup(localKey) : null;
+            if (remoteValue != null) {
+                return remoteValue;
+            }
+            Object loaded;
+            try {
+                loaded = valueLoader.call();
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+            // May land after a concurrent eviction elsewhere; bounded by the L2 TTL (see class doc)
+            remotePut(localKey, loaded);
+            return toStoreValue(loaded);
+        });
+        return (T) fromStoreValue(value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = String.valueOf(key);
+        local.put(localKey, toStoreValue(value));
+        remotePut(localKey, value);
+        invalidationPublisher.publish(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = String.valueOf(key);
+        local.invalidate(localKey);
+        if (remote != null) {
+            try {
+                remote.evict(localKey);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to evict {}::{} from Redis: {}", name, localKey, ex.getMessage());
+            }
+        }
+        invalidationPublisher.publish(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        if (remote != null) {
+            try {
+                remote.clear();
+            } catch (RuntimeException ex) {
+                log.warn("Failed to clear cache {} in Redis: {}", name, ex.getMessage());
+            }
+        }
+        invalidationPublisher.publish(name, null);
+    }
+
+    /**
+     * Drops an L1 entry after another replica changed it.
+     */
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    private Object remoteLookup(String key) {
+        try {
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper == null) {
+                remoteMisses.increment();
+                return null;
+            }
+            remoteHits.increment();
+            return toStoreValue(wrapper.get());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to read {}::{} from Redis: {}", name, key, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void remotePut(String key, Object value) {
+        if (remote == null || value == null) {
+            return;
+        }
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to write {}::{} to Redis: {}", name, key, ex.getMessage());
+        }
+    }
+
+    private static Counter remoteCounter(MeterRegistry meterRegistry, String cacheName, String result) {
+        return Counter.builder("cache.remote.gets")
+                .description("L2 (Redis) lookups after an L1 miss")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tells other replicas that an entry (or, with a {@code null} key, the whole cache) changed.
+     */
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+
+        InvalidationPublisher NONE = (cacheName, key) -> { };
+
+        void publish(String cacheName, String key);
+    }
+}
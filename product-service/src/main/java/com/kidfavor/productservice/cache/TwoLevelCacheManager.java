@@ -0,0 +1,100 @@
+package com.kidfavor.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Creates {@link TwoLevelCache}s and registers their L1 statistics with Micrometer
+ * (cache.gets, cache.puts, cache.evictions, tagged with the cache name), from which
+ * the per-cache hit ratio is derived. Caches are transaction-aware, so evictions made
+ * inside a transaction are applied only after it commits.
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final Collection<String> cacheNames;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final Map<String, Duration> localTtlOverrides;
+    private final CacheManager remoteCacheManager;
+    private final TwoLevelCache.InvalidationPublisher invalidationPublisher;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param remoteCacheManager source of L2 caches, or {@code null} to run on L1 only
+     */
+    public TwoLevelCacheManager(Collection<String> cacheNames,
+                                long localMaximumSize,
+                                Duration localTtl,
+                                Map<String, Duration> localTtlOverrides,
+                                CacheManager remoteCacheManager,
+                                TwoLevelCache.InvalidationPublisher invalidationPublisher,
+                                MeterRegistry meterRegistry) {
+        this.cacheNames = List.copyOf(cacheNames);
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.localTtlOverrides = Map.copyOf(localTtlOverrides);
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.meterRegistry = meterRegistry;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return cacheNames.stream()
+                .map(this::createCache)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    /**
+     * Applies an invalidation broadcast by another replica to the local tier only.
+     *
+     * @param key the changed entry, or {@code null} when the whole cache was cleared
+     */
+    public void evictLocal(String cacheName, String key) {
+        Cache cache = lookupCache(cacheName);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (!(cache instanceof TwoLevelCache twoLevelCache)) {
+            return;
+        }
+        if (key == null) {
+            twoLevelCache.clearLocal();
+        } else {
+            twoLevelCache.evictLocal(key);
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtlOverrides.getOrDefault(name, localTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name);
+
+        Cache remote = remoteCacheManager != null ? remoteCacheManager.getCache(name) : null;
+        log.info("Configured cache {}: l1Ttl={}, l2={}", name,
+                localTtlOverrides.getOrDefault(name, localTtl), remote != null ? "redis" : "none");
+        return new TwoLevelCache(name, local, remote, invalidationPublisher, meterRegistry);
+    }
+}
@@ -0,0 +1,162 @@
+package com.kidfavor.productservice.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kidfavor.productservice.cache.CacheNames;
+import com.kidfavor.productservice.cache.TwoLevelCache;
+import com.kidfavor.productservice.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Two-level cache for catalog reads: Caffeine in every replica (L1) and, when
+ * app.cache.redis.enabled is set, a shared Redis tier (L2) using the same serialization
+ * as user-service. With Redis enabled, evictions are broadcast on a pub/sub channel so
+ * every replica drops its L1 copy; without it, the L1 TTL bounds staleness across replicas.
+ * A load that races another replica's eviction can leave its stale value in L2 until the
+ * L2 entry expires (see {@link TwoLevelCache}), so product entries, which change with every
+ * reservation, get a short L2 TTL of their own.
+ */
+@Slf4j
+@Configuration
+// Outside the transaction advice, so a cache hit never opens a transaction or borrows a connection
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    private static final List<String> CACHE_NAMES = List.of(
+            CacheNames.CATEGORIES, CacheNames.CATEGORY, CacheNames.BRANDS, CacheNames.BRAND, CacheNames.PRODUCT);
+
+    /**
+     * Identifies this replica in invalidation messages so it ignores its own broadcasts.
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${app.cache.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${app.cache.redis.invalidation-channel:product-service:cache-invalidation}")
+    private String invalidationChannel;
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(
+            MeterRegistry meterRegistry,
+            ObjectProvider<RedisConnectionFactory> connectionFactory,
+            @Value("${app.cache.local.maximum-size:10000}") long localMaximumSize,
+            @Value("${app.cache.local.ttl:10m}") Duration localTtl,
+            @Value("${app.cache.local.product-ttl:60s}") Duration productTtl,
+            @Value("${app.cache.redis.ttl:30m}") Duration redisTtl,
+            @Value("${app.cache.redis.product-ttl:60s}") Duration productRedisTtl) {
+        RedisCacheManager remoteCacheManager = null;
+        TwoLevelCache.InvalidationPublisher publisher = TwoLevelCache.InvalidationPublisher.NONE;
+
+        if (redisEnabled) {
+            RedisConnectionFactory redisConnectionFactory = connectionFactory.getObject();
+            remoteCacheManager = redisCacheManager(redisConnectionFactory, redisTtl, productRedisTtl);
+
+            StringRedisTemplate redisTemplate = new StringRedisTemplate(redisConnectionFactory);
+            publisher = (cacheName, key) -> {
+                try {
+                    redisTemplate.convertAndSend(invalidationChannel, invalidationMessage(cacheName, key));
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to broadcast invalidation of {}::{}: {}", cacheName, key, ex.getMessage());
+                }
+            };
+        }
+
+        return new TwoLevelCacheManager(CACHE_NAMES, localMaximumSize, localTtl,
+                Map.of(CacheNames.PRODUCT, productTtl), remoteCacheManager, publisher, meterRegistry);
+    }
+
+    /**
+     * Applies invalidations broadcast by other replicas to the local tier.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory, TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            // Format: "<instanceId> <cacheName>[ <key>]"; no key means the whole cache was cleared
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ", 3);
+            if (parts.length < 2 || instanceId.equals(parts[0])) {
+                return;
+            }
+            cacheManager.evictLocal(parts[1], parts.length == 3 ? parts[2] : null);
+        }, new ChannelTopic(invalidationChannel));
+        return container;
+    }
+
+    private String invalidationMessage(String cacheName, String key) {
+        return key == null
+                ? instanceId + " " + cacheName
+                : instanceId + " " + cacheName + " " + key;
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                                Duration ttl, Duration productTtl) {
+        GenericJackson2JsonRedisSerializer jsonSerializer =
+                new GenericJackson2JsonRedisSerializer(createRedisObjectMapper());
+
+        RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .prefixCacheNameWith("product-service:")
+                .serializeKeysWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer())
+                )
+                .serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer)
+                )
+                .disableCachingNullValues();
+
+        // SCAN instead of KEYS when a whole cache is cleared, so Redis is never blocked
+        return RedisCacheManager.builder(
+                        RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)))
+                .cacheDefaults(cacheConfig)
+                .withCacheConfiguration(CacheNames.PRODUCT, cacheConfig.entryTtl(productTtl))
+                .build();
+    }
+
+    /**
+     * ObjectMapper specifically for Redis serialization.
+     * NOT exposed as a Bean to avoid affecting HTTP JSON parsing.
+     */
+    private ObjectMapper createRedisObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder()
+                        .allowIfBaseType(Object.class)
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY
+        );
+        return mapper;
+    }
+}
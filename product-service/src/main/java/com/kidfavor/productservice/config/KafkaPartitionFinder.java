@@ -0,0 +1,36 @@
+package com.kidfavor.productservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.List;
+
+/**
+ * Lists the partitions of a topic for listeners that assign them to themselves, e.g.
+ * {@code partitions = "#{@kafkaPartitionFinder.partitions('${app.kafka.topics.product-changed}')}"}.
+ * Such listeners join no consumer group and commit no offsets, so an instance that goes away
+ * leaves nothing behind on the broker. Partitions are read once, when the listener is registered,
+ * which can be before KafkaAdmin creates the declared topics; a topic declared here is therefore
+ * created first.
+ */
+public class KafkaPartitionFinder {
+    
+    private final KafkaAdmin kafkaAdmin;
+    private final List<NewTopic> declaredTopics;
+    
+    public KafkaPartitionFinder(KafkaAdmin kafkaAdmin, List<NewTopic> declaredTopics) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.declaredTopics = declaredTopics;
+    }
+    
+    public String[] partitions(String topic) {
+        declaredTopics.stream()
+                .filter(newTopic -> newTopic.name().equals(topic))
+                .forEach(kafkaAdmin::createOrModifyTopics);
+        TopicDescription description = kafkaAdmin.describeTopics(topic).get(topic);
+        return description.partitions().stream()
+                .map(partition -> String.valueOf(partition.partition()))
+                .toArray(String[]::new);
+    }
+}
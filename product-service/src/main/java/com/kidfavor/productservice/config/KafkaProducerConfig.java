@@ -0,0 +1,75 @@
+package com.kidfavor.productservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka Producer configuration for Product Service.
+ * Publishes product change records keyed by product id.
+ */
+@Configuration
+public class KafkaProducerConfig {
+    
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+    
+    @Value("${app.kafka.topics.product-changed}")
+    private String productChangedTopic;
+    
+    @Value("${app.kafka.topics.product-changed-partitions:3}")
+    private int productChangedPartitions;
+    
+    /**
+     * Creates the product-changed topic if it doesn't exist.
+     * The topic is compacted: Kafka keeps at least the latest record per product,
+     * so a new consumer can replay it from the start to warm its cache.
+     */
+    @Bean
+    public NewTopic productChangedTopic() {
+        return TopicBuilder.name(productChangedTopic)
+                .partitions(productChangedPartitions)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+    
+    /**
+     * Producer configuration with idempotence, so retries never reorder or duplicate
+     * the changes of a product within its partition.
+     */
+    @Bean
+    public ProducerFactory<String, Object> producerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        
+        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+    
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+}
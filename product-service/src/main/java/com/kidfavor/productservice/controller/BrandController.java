@@ -14,8 +14,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/brands")
@@ -28,23 +30,29 @@ public class BrandController {
     @GetMapping
     @Operation(summary = "Get all brands", description = "Retrieve all brands")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved brands")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved brands"),
+        @ApiResponse(responseCode = "304", description = "Brands unchanged since the ETag sent in If-None-Match")
     })
-    public ResponseEntity<List<BrandResponse>> getAllBrands() {
-        return ResponseEntity.ok(brandService.getAllBrands());
+    public ResponseEntity<List<BrandResponse>> getAllBrands(WebRequest webRequest) {
+        List<BrandResponse> brands = brandService.getAllBrands();
+        return ETags.conditional(webRequest, ETags.ofCollection(brands, BrandResponse::getUpdatedAt), () -> brands);
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get brand by ID", description = "Retrieve a specific brand by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Brand found"),
+        @ApiResponse(responseCode = "304", description = "Brand unchanged since the ETag sent in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Brand not found")
     })
     public ResponseEntity<BrandResponse> getBrandById(
-            @Parameter(description = "Brand ID") @PathVariable Long id) {
-        return brandService.getBrandById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @Parameter(description = "Brand ID") @PathVariable Long id,
+            WebRequest webRequest) {
+        Optional<BrandResponse> brand = brandService.getBrandById(id);
+        if (brand.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ETags.conditional(webRequest, ETags.of(brand.get()), brand::get);
     }
     
     @PostMapping
@@ -14,8 +14,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/categories")
@@ -28,23 +30,29 @@ public class CategoryController {
     @GetMapping
     @Operation(summary = "Get all categories", description = "Retrieve all categories")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved categories")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved categories"),
+        @ApiResponse(responseCode = "304", description = "Categories unchanged since the ETag sent in If-None-Match")
     })
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest webRequest) {
+        List<CategoryResponse> categories = categoryService.getAllCategories();
+        return ETags.conditional(webRequest, ETags.ofCollection(categories, CategoryResponse::getUpdatedAt), () -> categories);
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get category by ID", description = "Retrieve a specific category by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Category found"),
+        @ApiResponse(responseCode = "304", description = "Category unchanged since the ETag sent in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Category not found")
     })
     public ResponseEntity<CategoryResponse> getCategoryById(
-            @Parameter(description = "Category ID") @PathVariable Long id) {
-        return categoryService.getCategoryById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @Parameter(description = "Category ID") @PathVariable Long id,
+            WebRequest webRequest) {
+        Optional<CategoryResponse> category = categoryService.getCategoryById(id);
+        if (category.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ETags.conditional(webRequest, ETags.of(category.get()), category::get);
     }
     
     @PostMapping
@@ -0,0 +1,76 @@
+package com.kidfavor.productservice.controller;
+
+import com.kidfavor.productservice.dto.response.BrandResponse;
+import com.kidfavor.productservice.dto.response.CategoryResponse;
+import com.kidfavor.productservice.dto.response.ProductResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Strong ETags for catalog responses, derived from versions and update timestamps rather than from the
+ * serialized body, so a matching If-None-Match is answered with 304 before the body is
+ * loaded, mapped or serialized.
+ */
+final class ETags {
+    
+    private ETags() {
+    }
+    
+    /**
+     * Answers 304 (status and ETag header set by Spring, no body) when the client's copy is
+     * current; otherwise builds the body and asks clients to revalidate before reusing it.
+     */
+    static <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(body.get());
+    }
+    
+    static String of(ProductResponse product) {
+        return of(product.getId(), product.getVersion(),
+                product.getCategory() != null ? product.getCategory().getUpdatedAt() : null,
+                product.getBrand() != null ? product.getBrand().getUpdatedAt() : null);
+    }
+    
+    static String of(CategoryResponse category) {
+        return of(category.getId(), category.getUpdatedAt());
+    }
+    
+    static String of(BrandResponse brand) {
+        return of(brand.getId(), brand.getUpdatedAt());
+    }
+    
+    /**
+     * Collection validator: element count plus newest update.
+     */
+    static <T> String ofCollection(Collection<T> items, Function<T, LocalDateTime> updatedAt) {
+        LocalDateTime newest = items.stream()
+                .map(updatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return of(items.size(), newest);
+    }
+    
+    static String of(Object... parts) {
+        String joined = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+        return "\"" + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
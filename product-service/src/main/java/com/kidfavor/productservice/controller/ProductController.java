@@ -1,8 +1,12 @@
 package com.kidfavor.productservice.controller;
 
 import com.kidfavor.productservice.dto.request.ProductCreateRequest;
+import com.kidfavor.productservice.dto.request.ProductFilter;
 import com.kidfavor.productservice.dto.request.ProductUpdateRequest;
+import com.kidfavor.productservice.dto.response.PageResponse;
 import com.kidfavor.productservice.dto.response.ProductResponse;
+import com.kidfavor.productservice.dto.response.ProductSearchResponse;
+import com.kidfavor.productservice.dto.response.SuggestionResponse;
 import com.kidfavor.productservice.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,11 +15,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/products")
@@ -26,55 +36,102 @@ public class ProductController {
     private final ProductService productService;
     
     @GetMapping
-    @Operation(summary = "Get all products", description = "Retrieve all products")
+    @Operation(summary = "Get products", description = "Retrieve a page of products, optionally filtered by category, brand, price range, active and in-stock. " +
+            "Sortable by name, price, stock, createdAt and id; pages hold at most 100 products")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+        @ApiResponse(responseCode = "304", description = "Products unchanged since the ETag sent in If-None-Match")
     })
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<PageResponse<ProductResponse>> getProducts(
+            @Valid @ParameterObject ProductFilter filter,
+            @ParameterObject @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            WebRequest webRequest) {
+        String etag = ETags.of(productService.getProductsVersion(filter), pageable);
+        return ETags.conditional(webRequest, etag, () -> productService.getProducts(filter, pageable));
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Product found"),
+        @ApiResponse(responseCode = "304", description = "Product unchanged since the ETag sent in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Product not found")
     })
     public ResponseEntity<ProductResponse> getProductById(
-            @Parameter(description = "Product ID") @PathVariable Long id) {
-        return productService.getProductById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            WebRequest webRequest) {
+        Optional<ProductResponse> product = productService.getProductById(id);
+        if (product.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ETags.conditional(webRequest, ETags.of(product.get()), product::get);
+    }
+    
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Retrieve several products in a single call; unknown IDs are omitted from the result")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+    })
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(
+            @Parameter(description = "Product IDs") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
     }
     
     @GetMapping("/category/{categoryId}")
     @Operation(summary = "Get products by category", description = "Retrieve all products in a specific category")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+        @ApiResponse(responseCode = "304", description = "Products unchanged since the ETag sent in If-None-Match")
     })
     public ResponseEntity<List<ProductResponse>> getProductsByCategory(
-            @Parameter(description = "Category ID") @PathVariable Long categoryId) {
-        return ResponseEntity.ok(productService.getProductsByCategory(categoryId));
+            @Parameter(description = "Category ID") @PathVariable Long categoryId,
+            WebRequest webRequest) {
+        ProductFilter filter = new ProductFilter();
+        filter.setCategoryId(categoryId);
+        String etag = ETags.of(productService.getProductsVersion(filter));
+        return ETags.conditional(webRequest, etag, () -> productService.getProductsByCategory(categoryId));
     }
     
     @GetMapping("/brand/{brandId}")
     @Operation(summary = "Get products by brand", description = "Retrieve all products of a specific brand")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+        @ApiResponse(responseCode = "304", description = "Products unchanged since the ETag sent in If-None-Match")
     })
     public ResponseEntity<List<ProductResponse>> getProductsByBrand(
-            @Parameter(description = "Brand ID") @PathVariable Long brandId) {
-        return ResponseEntity.ok(productService.getProductsByBrand(brandId));
+            @Parameter(description = "Brand ID") @PathVariable Long brandId,
+            WebRequest webRequest) {
+        ProductFilter filter = new ProductFilter();
+        filter.setBrandId(brandId);
+        String etag = ETags.of(productService.getProductsVersion(filter));
+        return ETags.conditional(webRequest, etag, () -> productService.getProductsByBrand(brandId));
     }
     
     @GetMapping("/search")
-    @Operation(summary = "Search products", description = "Search products by keyword in name or description")
+    @Operation(summary = "Search products", description = "Full-text search over name and description of active products, ranked by relevance. " +
+            "Matches word prefixes and tolerates one typo per longer word; returns category and brand facet counts")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
     })
-    public ResponseEntity<List<ProductResponse>> searchProducts(
-            @Parameter(description = "Search keyword") @RequestParam String keyword) {
-        return ResponseEntity.ok(productService.searchProducts(keyword));
+    public ResponseEntity<ProductSearchResponse> searchProducts(
+            @Parameter(description = "Search keyword") @RequestParam String keyword,
+            @Parameter(description = "Restrict to a category") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "Restrict to a brand") @RequestParam(required = false) Long brandId,
+            @Parameter(description = "Page number, starting at 0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.searchProducts(keyword, categoryId, brandId, page, size));
+    }
+    
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest as you type", description = "Product, brand and category names with a word starting with the prefix, most popular first. " +
+            "Served from memory; accents and case are ignored")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions")
+    })
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @Parameter(description = "What the user has typed so far") @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions, at most 20") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggest(prefix, limit));
     }
     
     @PostMapping
@@ -0,0 +1,68 @@
+package com.kidfavor.productservice.controller;
+
+import com.kidfavor.productservice.dto.request.StockReservationRequest;
+import com.kidfavor.productservice.dto.response.StockReservationResponse;
+import com.kidfavor.productservice.service.StockReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/products/stock/reservations")
+@RequiredArgsConstructor
+@Tag(name = "Stock Reservation", description = "Atomic stock reservation APIs")
+public class StockReservationController {
+    
+    private final StockReservationService stockReservationService;
+    
+    @PostMapping
+    @Operation(summary = "Reserve stock", description = "Atomically reserve stock for every line of a basket, all or nothing")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservation processed; when success is false no stock was taken and each line explains why"),
+        @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public ResponseEntity<StockReservationResponse> reserveStock(@Valid @RequestBody StockReservationRequest request) {
+        return ResponseEntity.ok(stockReservationService.reserve(request));
+    }
+    
+    @PostMapping("/{reservationId}/release")
+    @Operation(summary = "Release reservation", description = "Return reserved stock to the products")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservation released")
+    })
+    public ResponseEntity<StockReservationResponse> releaseReservation(
+            @Parameter(description = "Reservation ID") @PathVariable String reservationId) {
+        return ResponseEntity.ok(stockReservationService.release(reservationId));
+    }
+    
+    @PostMapping("/{reservationId}/hold")
+    @Operation(summary = "Hold reservation", description = "Stop the reservation from expiring once its order is placed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Reservation held"),
+        @ApiResponse(responseCode = "404", description = "Reservation not found"),
+        @ApiResponse(responseCode = "409", description = "Reservation already released")
+    })
+    public ResponseEntity<Void> holdReservation(
+            @Parameter(description = "Reservation ID") @PathVariable String reservationId) {
+        stockReservationService.hold(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/{reservationId}/confirm")
+    @Operation(summary = "Confirm reservation", description = "Make reserved stock final")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservation confirmed"),
+        @ApiResponse(responseCode = "404", description = "Reservation not found"),
+        @ApiResponse(responseCode = "409", description = "Reservation already released; nothing was confirmed")
+    })
+    public ResponseEntity<StockReservationResponse> confirmReservation(
+            @Parameter(description = "Reservation ID") @PathVariable String reservationId) {
+        return ResponseEntity.ok(stockReservationService.confirm(reservationId));
+    }
+}
@@ -0,0 +1,31 @@
+package com.kidfavor.productservice.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Optional catalog filters; unset fields do not restrict the result.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilter {
+    
+    private Long categoryId;
+    
+    private Long brandId;
+    
+    @DecimalMin(value = "0.0", message = "Minimum price must not be negative")
+    private BigDecimal minPrice;
+    
+    @DecimalMin(value = "0.0", message = "Maximum price must not be negative")
+    private BigDecimal maxPrice;
+    
+    private Boolean active;
+    
+    private Boolean inStock;
+}
@@ -0,0 +1,25 @@
+package com.kidfavor.productservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+    
+    @NotBlank(message = "Reservation ID is required")
+    @Size(max = 100, message = "Reservation ID must not exceed 100 characters")
+    private String reservationId;
+    
+    @NotEmpty(message = "Reservation must contain at least one item")
+    @Valid
+    private List<StockReservationItemRequest> items;
+}
@@ -0,0 +1,17 @@
+package com.kidfavor.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountResponse {
+    
+    private Long id;
+    private String name;
+    private int count;
+}
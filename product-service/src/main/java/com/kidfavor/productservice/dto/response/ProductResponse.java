@@ -19,9 +19,12 @@ public class ProductResponse {
     private String name;
     private String description;
     private BigDecimal price;
+    private Integer stock;
+    private Boolean active;
     private CategoryResponse category;
     private BrandResponse brand;
     private List<String> imageUrls;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
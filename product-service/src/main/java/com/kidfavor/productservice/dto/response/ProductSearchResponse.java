@@ -0,0 +1,22 @@
+package com.kidfavor.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResponse {
+    
+    private List<ProductResponse> content;
+    private int page;
+    private int size;
+    private long totalHits;
+    private List<FacetCountResponse> categories;
+    private List<FacetCountResponse> brands;
+}
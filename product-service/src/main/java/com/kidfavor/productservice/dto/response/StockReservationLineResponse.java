@@ -0,0 +1,23 @@
+package com.kidfavor.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationLineResponse {
+    
+    public static final String PRODUCT_NOT_FOUND = "PRODUCT_NOT_FOUND";
+    public static final String PRODUCT_INACTIVE = "PRODUCT_INACTIVE";
+    public static final String INSUFFICIENT_STOCK = "INSUFFICIENT_STOCK";
+    
+    private Long productId;
+    private Integer quantity;
+    private boolean reserved;
+    private Integer availableStock;
+    private String failureReason;
+}
@@ -0,0 +1,21 @@
+package com.kidfavor.productservice.dto.response;
+
+import com.kidfavor.productservice.entity.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+    
+    private String reservationId;
+    private boolean success;
+    private ReservationStatus status;
+    private List<StockReservationLineResponse> lines;
+}
@@ -0,0 +1,20 @@
+package com.kidfavor.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+    
+    /**
+     * PRODUCT, BRAND or CATEGORY.
+     */
+    private String type;
+    private Long id;
+    private String text;
+}
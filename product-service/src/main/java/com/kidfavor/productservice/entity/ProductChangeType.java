@@ -0,0 +1,7 @@
+package com.kidfavor.productservice.entity;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -14,7 +14,8 @@ import lombok.NoArgsConstructor;
 public class ProductImage {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_image_seq")
+    @SequenceGenerator(name = "product_image_seq", sequenceName = "product_images_seq", allocationSize = 50)
     private Long id;
     
     @JsonIgnore
@@ -0,0 +1,59 @@
+package com.kidfavor.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row for a product change.
+ * Only the product id and what changed are stored; the relay reads the product's
+ * current state when it publishes. A null sentAt marks the row as still pending.
+ * A row that fails app.outbox.max-attempts times is parked (parkedAt set) and skipped
+ * by the relay until parkedAt is cleared.
+ */
+@Entity
+@Table(name = "product_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductOutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_outbox_seq")
+    @SequenceGenerator(name = "product_outbox_seq", sequenceName = "product_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ProductChangeType changeType;
+    
+    /**
+     * Comma-separated names of the changed fields.
+     */
+    @Column(name = "changed_fields", length = 500)
+    private String changedFields;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+    
+    @Column(length = 1000)
+    private String lastError;
+    
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime sentAt;
+    
+    private LocalDateTime parkedAt;
+}
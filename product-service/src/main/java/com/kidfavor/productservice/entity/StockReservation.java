@@ -0,0 +1,53 @@
+package com.kidfavor.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One reserved line of a basket. The reservationId is chosen by the caller
+ * (order-service uses the order number) and groups the lines of one basket.
+ */
+@Entity
+@Table(name = "stock_reservations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservation_seq")
+    @SequenceGenerator(name = "stock_reservation_seq", sequenceName = "stock_reservations_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false, length = 100)
+    private String reservationId;
+    
+    @Column(nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status;
+    
+    /**
+     * When a RESERVED line is returned to stock unless its order has been placed; null once the
+     * order is known to exist.
+     */
+    private LocalDateTime expiresAt;
+    
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,54 @@
+package com.kidfavor.productservice.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kidfavor.productservice.exception.StockReservationNotFoundException;
+import com.kidfavor.productservice.exception.StockReservationReleasedException;
+import com.kidfavor.productservice.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the stock reservation of every placed order. order-service already holds the reservation
+ * synchronously before its order transaction commits; this is the backstop for orders committed
+ * without that call (e.g. by a replica running an older release), so it only logs reservations
+ * that are gone or released, which is normal for orders cancelled before the event arrived.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderPlacedListener {
+
+    private final StockReservationService stockReservationService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topics = "${app.kafka.topics.order-placed}",
+            groupId = "${spring.application.name}-reservations",
+            containerFactory = "orderPlacedListenerContainerFactory"
+    )
+    public void onOrderPlaced(ConsumerRecord<String, String> record) {
+        String orderNumber = orderNumber(record.value());
+        if (orderNumber == null) {
+            log.warn("Ignoring order-placed record without an order number at offset {}", record.offset());
+            return;
+        }
+        try {
+            stockReservationService.hold(orderNumber);
+        } catch (StockReservationNotFoundException | StockReservationReleasedException ex) {
+            log.info("Not holding reservation of placed order {}: {}", orderNumber, ex.getMessage());
+        }
+    }
+
+    private String orderNumber(String value) {
+        try {
+            JsonNode orderNumber = objectMapper.readTree(value).get("orderNumber");
+            return orderNumber != null && orderNumber.isTextual() ? orderNumber.asText() : null;
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.kidfavor.productservice.event;
+
+import com.kidfavor.productservice.entity.ProductChangeType;
+import com.kidfavor.productservice.entity.ProductOutboxEvent;
+import com.kidfavor.productservice.repository.ProductOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Records product changes in the transactional outbox.
+ * Must run inside the transaction that changes the product, so a change is
+ * published if and only if it commits. {@link ProductOutboxRelay} forwards the rows to Kafka.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductChangeRecorder {
+    
+    public static final String FIELD_STOCK = "stock";
+    
+    private final ProductOutboxRepository outboxRepository;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long productId, ProductChangeType changeType, Collection<String> changedFields) {
+        outboxRepository.save(newOutboxEvent(productId, changeType, changedFields));
+        log.debug("Recorded {} change for product {}: {}", changeType, productId, changedFields);
+    }
+    
+    /**
+     * Records a stock-only change for each product, e.g. after a reservation.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStockChanges(Collection<Long> productIds) {
+        List<ProductOutboxEvent> events = productIds.stream()
+                .map(productId -> newOutboxEvent(productId, ProductChangeType.UPDATED, List.of(FIELD_STOCK)))
+                .collect(Collectors.toList());
+        outboxRepository.saveAll(events);
+    }
+    
+    private ProductOutboxEvent newOutboxEvent(Long productId, ProductChangeType changeType,
+                                              Collection<String> changedFields) {
+        return ProductOutboxEvent.builder()
+                .productId(productId)
+                .changeType(changeType)
+                .changedFields(changedFields == null || changedFields.isEmpty()
+                        ? null
+                        : String.join(",", changedFields))
+                .build();
+    }
+}
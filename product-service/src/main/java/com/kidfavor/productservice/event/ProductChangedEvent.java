@@ -0,0 +1,37 @@
+package com.kidfavor.productservice.event;
+
+import com.kidfavor.productservice.entity.ProductChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Compact change record published on the product-changed topic, keyed by product id.
+ * Each record carries the product's full current state, so the latest record per key
+ * in the compacted topic is enough to rebuild a cache or index from scratch.
+ * version is the product's optimistic-lock version, which increases with every change;
+ * consumers can drop records older than the version they already applied.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangedEvent {
+    
+    private Long productId;
+    private Long version;
+    private ProductChangeType changeType;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private Boolean active;
+    private Long categoryId;
+    private Long brandId;
+    private List<String> changedFields;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,252 @@
+package com.kidfavor.productservice.event;
+
+import com.kidfavor.productservice.entity.Product;
+import com.kidfavor.productservice.entity.ProductChangeType;
+import com.kidfavor.productservice.entity.ProductOutboxEvent;
+import com.kidfavor.productservice.repository.ProductOutboxRepository;
+import com.kidfavor.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Relays pending product changes to the product-changed topic in batches.
+ * Records are keyed by product id, which keeps every product's changes in order on one
+ * partition, and carry the product's state at relay time. Only one replica relays at a
+ * time (each batch transaction first takes the single-row relay lock), so a later record
+ * for a product always carries a state at least as new as the one before it, and the
+ * last record per key on the compacted topic is the newest state. Deleted products are
+ * published as tombstones so compaction drops them from the topic.
+ * A row that fails max-attempts times is parked so it cannot block the relay, and sent
+ * rows are purged once they are older than the retention period.
+ */
+@Slf4j
+@Component
+public class ProductOutboxRelay {
+    
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private final ProductOutboxRepository outboxRepository;
+    private final ProductRepository productRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    
+    @Value("${app.kafka.topics.product-changed}")
+    private String productChangedTopic;
+    
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+    
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+    
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention;
+    
+    @Value("${app.outbox.purge-batch-size:1000}")
+    private int purgeBatchSize;
+    
+    public ProductOutboxRelay(ProductOutboxRepository outboxRepository,
+                              ProductRepository productRepository,
+                              KafkaTemplate<String, Object> kafkaTemplate,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.productRepository = productRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        
+        Gauge.builder("product.outbox.backlog", backlog, AtomicLong::get)
+                .description("Product changes waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("product.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest unpublished product change")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("product.outbox.published")
+                .description("Product changes published to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("product.outbox.publish.failures")
+                .description("Product change publish attempts that failed")
+                .register(meterRegistry);
+        Gauge.builder("product.outbox.parked", parked, AtomicLong::get)
+                .description("Product changes parked after reaching the maximum number of attempts")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("product.outbox.parked.total")
+                .description("Product changes parked after reaching the maximum number of attempts")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Drains the outbox until a batch comes back short or with failures,
+     * then refreshes the backlog metrics.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relayPendingChanges() {
+        try {
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> publishBatch());
+            } while (sent != null && sent >= batchSize);
+            refreshMetrics();
+        } catch (Exception ex) {
+            log.error("Product outbox relay cycle failed: {}", ex.getMessage(), ex);
+        }
+    }
+    
+    /**
+     * Locks, publishes and marks one batch. Returns the number of rows acknowledged by Kafka.
+     */
+    private int publishBatch() {
+        if (outboxRepository.tryLockRelay().isEmpty()) {
+            log.debug("Another replica is relaying product changes");
+            return 0;
+        }
+        List<ProductOutboxEvent> batch = outboxRepository.lockNextPendingBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        // One query for the current state of every product in the batch
+        List<Long> productIds = batch.stream()
+                .map(ProductOutboxEvent::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(batch.size());
+        for (ProductOutboxEvent outboxEvent : batch) {
+            futures.add(kafkaTemplate.send(productChangedTopic,
+                    String.valueOf(outboxEvent.getProductId()),
+                    toRecordValue(outboxEvent, products.get(outboxEvent.getProductId()))));
+        }
+        
+        LocalDateTime sentAt = LocalDateTime.now();
+        int sent = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            ProductOutboxEvent outboxEvent = batch.get(i);
+            try {
+                futures.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                outboxEvent.setSentAt(sentAt);
+                sent++;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                markFailed(outboxEvent, ex);
+            } catch (ExecutionException ex) {
+                markFailed(outboxEvent, ex.getCause() != null ? ex.getCause() : ex);
+            } catch (TimeoutException ex) {
+                markFailed(outboxEvent, ex);
+            }
+        }
+        
+        publishedCounter.increment(sent);
+        log.debug("Product outbox batch relayed: {} of {} rows published", sent, batch.size());
+        return sent;
+    }
+    
+    /**
+     * Deletes rows sent longer ago than the retention period, in batches of purge-batch-size.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purgeSentChanges() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+            int purged = 0;
+            Integer deleted;
+            do {
+                deleted = transactionTemplate.execute(status ->
+                        outboxRepository.deleteSentBefore(cutoff, purgeBatchSize));
+                purged += deleted != null ? deleted : 0;
+            } while (deleted != null && deleted >= purgeBatchSize);
+            if (purged > 0) {
+                log.info("Purged {} product outbox rows sent before {}", purged, cutoff);
+            }
+        } catch (Exception ex) {
+            log.error("Product outbox purge failed: {}", ex.getMessage(), ex);
+        }
+    }
+    
+    /**
+     * Builds the record value from the product's current state, or null (a tombstone)
+     * when the product no longer exists.
+     */
+    private ProductChangedEvent toRecordValue(ProductOutboxEvent outboxEvent, Product product) {
+        if (product == null || outboxEvent.getChangeType() == ProductChangeType.DELETED) {
+            return null;
+        }
+        return ProductChangedEvent.builder()
+                .productId(product.getId())
+                .version(product.getVersion())
+                .changeType(outboxEvent.getChangeType())
+                .name(product.getName())
+                .price(product.getPrice())
+                .stock(product.getStock())
+                .active(product.getActive())
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .brandId(product.getBrand() != null ? product.getBrand().getId() : null)
+                .changedFields(outboxEvent.getChangedFields() == null
+                        ? List.of()
+                        : Arrays.asList(outboxEvent.getChangedFields().split(",")))
+                .changedAt(outboxEvent.getCreatedAt())
+                .build();
+    }
+    
+    private void markFailed(ProductOutboxEvent outboxEvent, Throwable ex) {
+        failedCounter.increment();
+        outboxEvent.setAttempts(outboxEvent.getAttempts() + 1);
+        String message = String.valueOf(ex.getMessage());
+        outboxEvent.setLastError(message.length() > MAX_ERROR_LENGTH
+                ? message.substring(0, MAX_ERROR_LENGTH)
+                : message);
+        if (outboxEvent.getAttempts() >= maxAttempts) {
+            outboxEvent.setParkedAt(LocalDateTime.now());
+            parkedCounter.increment();
+            log.error("Parked change {} for product {} after {} attempts: {}",
+                    outboxEvent.getId(), outboxEvent.getProductId(), outboxEvent.getAttempts(), message);
+            return;
+        }
+        log.warn("Failed to publish change {} for product {} (attempt {}): {}",
+                outboxEvent.getId(), outboxEvent.getProductId(), outboxEvent.getAttempts(), message);
+    }
+    
+    private void refreshMetrics() {
+        backlog.set(outboxRepository.countBySentAtIsNullAndParkedAtIsNull());
+        parked.set(outboxRepository.countByParkedAtIsNotNull());
+        LocalDateTime oldestPending = outboxRepository.findOldestPendingCreatedAt();
+        lagSeconds.set(oldestPending == null
+                ? 0
+                : Math.max(0, Duration.between(oldestPending, LocalDateTime.now()).toSeconds()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.kidfavor.productservice.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps domain errors that have a precise HTTP meaning; anything else keeps Spring's default handling.
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    /**
+     * Another request changed the same row between our read and our write.
+     * The client should re-read the resource and re-apply its change.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        log.warn("Optimistic locking conflict: {}", ex.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                "The resource was modified concurrently; reload it and retry");
+    }
+
+    @ExceptionHandler(StockReservationNotFoundException.class)
+    public ProblemDetail handleStockReservationNotFound(StockReservationNotFoundException ex) {
+        log.warn("Stock reservation not found: {}", ex.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    /**
+     * The reservation lost its stock before the order could hold or confirm it;
+     * the caller must not treat the order as backed by stock.
+     */
+    @ExceptionHandler(StockReservationReleasedException.class)
+    public ProblemDetail handleStockReservationReleased(StockReservationReleasedException ex) {
+        log.warn("Stock reservation released: {}", ex.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Illegal argument: {}", ex.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+}
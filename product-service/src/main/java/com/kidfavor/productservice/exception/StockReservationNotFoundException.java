@@ -0,0 +1,11 @@
+package com.kidfavor.productservice.exception;
+
+/**
+ * Exception thrown when no stock reservation exists with the given id.
+ */
+public class StockReservationNotFoundException extends RuntimeException {
+
+    public StockReservationNotFoundException(String reservationId) {
+        super("Stock reservation not found with id: " + reservationId);
+    }
+}
@@ -0,0 +1,12 @@
+package com.kidfavor.productservice.exception;
+
+/**
+ * Exception thrown when a reservation is to be held or confirmed but some of its lines
+ * were already released (by a cancellation or by the expiry sweep), so its stock is no longer held.
+ */
+public class StockReservationReleasedException extends RuntimeException {
+
+    public StockReservationReleasedException(String reservationId) {
+        super("Stock reservation " + reservationId + " was released and no longer holds its stock");
+    }
+}
@@ -33,6 +33,7 @@ public class BrandMapper {
                 .id(brand.getId())
                 .name(brand.getName())
                 .logoUrl(brand.getLogoUrl())
+                .updatedAt(brand.getUpdatedAt())
                 .build();
     }
     
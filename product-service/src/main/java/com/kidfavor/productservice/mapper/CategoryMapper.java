@@ -28,6 +28,7 @@ public class CategoryMapper {
         return CategoryResponse.builder()
                 .id(category.getId())
                 .name(category.getName())
+                .updatedAt(category.getUpdatedAt())
                 .build();
     }
     
@@ -64,11 +64,14 @@ public class ProductMapper {
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
+                .stock(product.getStock())
+                .active(product.getActive())
                 .category(product.getCategory() != null ? categoryMapper.toResponse(product.getCategory()) : null)
                 .brand(product.getBrand() != null ? brandMapper.toResponse(product.getBrand()) : null)
                 .imageUrls(imageUrls)
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
                 .build();
     }
     
@@ -0,0 +1,12 @@
+package com.kidfavor.productservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap aggregate over a set of catalog rows: how many there are and when the newest
+ * change happened. Any insert, update or delete within the set changes at least one of them.
+ *
+ * @param lastModified {@code null} when the set is empty
+ */
+public record CatalogStamp(Long count, LocalDateTime lastModified) {
+}
@@ -2,6 +2,7 @@ package com.kidfavor.productservice.repository;
 
 import com.kidfavor.productservice.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +11,7 @@ import java.util.Optional;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
+    
+    @Query("SELECT new com.kidfavor.productservice.repository.CatalogStamp(COUNT(c), MAX(c.updatedAt)) FROM Category c")
+    CatalogStamp stamp();
 }
@@ -0,0 +1,49 @@
+package com.kidfavor.productservice.repository;
+
+import com.kidfavor.productservice.entity.ProductOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductOutboxRepository extends JpaRepository<ProductOutboxEvent, Long> {
+    
+    /**
+     * Takes the relay lock for the current transaction. Returns an empty list when another
+     * replica holds it, i.e. is publishing right now.
+     */
+    @Query(value = "SELECT id FROM product_outbox_relay_lock WHERE id = 1 FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Integer> tryLockRelay();
+    
+    /**
+     * Locks the next batch of pending rows. Runs under the relay lock, so SKIP LOCKED only
+     * matters for rows written by transactions that have not committed yet.
+     */
+    @Query(value = "SELECT * FROM product_outbox WHERE sent_at IS NULL AND parked_at IS NULL "
+            + "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<ProductOutboxEvent> lockNextPendingBatch(@Param("batchSize") int batchSize);
+    
+    long countBySentAtIsNullAndParkedAtIsNull();
+    
+    long countByParkedAtIsNotNull();
+    
+    @Query("SELECT MIN(e.createdAt) FROM ProductOutboxEvent e WHERE e.sentAt IS NULL AND e.parkedAt IS NULL")
+    LocalDateTime findOldestPendingCreatedAt();
+    
+    /**
+     * Deletes up to batchSize rows sent before the cutoff; called in a loop so a large
+     * backlog is purged in short transactions.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM product_outbox WHERE id IN "
+            + "(SELECT id FROM product_outbox WHERE sent_at < :cutoff LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
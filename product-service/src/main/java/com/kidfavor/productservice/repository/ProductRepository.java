@@ -1,14 +1,75 @@
 package com.kidfavor.productservice.repository;
 
 import com.kidfavor.productservice.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+    
+    /**
+     * Listing queries fetch category and brand in the same select, since every response
+     * includes them. Images are a collection and are batch-loaded instead (see Product.images),
+     * so a page costs a constant number of queries regardless of its size.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"category", "brand"})
+    List<Product> findAll();
+    
+    @Override
+    @EntityGraph(attributePaths = {"category", "brand"})
+    List<Product> findAllById(Iterable<Long> ids);
+    
+    /**
+     * Catalog page for the given filters; see {@link ProductSpecifications}.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"category", "brand"})
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"category", "brand"})
     List<Product> findByCategoryId(Long categoryId);
+    
+    @EntityGraph(attributePaths = {"category", "brand"})
     List<Product> findByBrandId(Long brandId);
-    List<Product> findByNameContainingIgnoreCase(String name);
+    
+    /**
+     * Keyset batch for rebuilding in-memory indexes; no count query, no offset scan.
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    /**
+     * Conditionally takes stock in a single statement; returns 0 when the product is
+     * missing, inactive or does not have enough stock. No read-then-write race is possible.
+     * Bulk updates bypass @Version and @UpdateTimestamp, so both are bumped explicitly;
+     * a concurrent edit of the same product then fails its version check instead of
+     * writing back a stale stock value.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.active = true AND p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT p.brand.id, COUNT(p) FROM Product p WHERE p.active = true AND p.brand IS NOT NULL GROUP BY p.brand.id")
+    List<Object[]> countActiveByBrand();
+    
+    @Query("SELECT p.category.id, COUNT(p) FROM Product p WHERE p.active = true AND p.category IS NOT NULL GROUP BY p.category.id")
+    List<Object[]> countActiveByCategory();
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.version = p.version + 1, p.updatedAt = :now " +
+           "WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
 }
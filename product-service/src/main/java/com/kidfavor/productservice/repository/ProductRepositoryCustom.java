@@ -0,0 +1,12 @@
+package com.kidfavor.productservice.repository;
+
+import com.kidfavor.productservice.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProductRepositoryCustom {
+    
+    /**
+     * Count and latest update of the products matching the specification, in one aggregate query.
+     */
+    CatalogStamp stamp(Specification<Product> spec);
+}
@@ -0,0 +1,34 @@
+package com.kidfavor.productservice.repository;
+
+import com.kidfavor.productservice.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public CatalogStamp stamp(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CatalogStamp> query = cb.createQuery(CatalogStamp.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.construct(CatalogStamp.class,
+                cb.count(root),
+                cb.greatest(root.<LocalDateTime>get("updatedAt"))));
+        
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,44 @@
+package com.kidfavor.productservice.repository;
+
+import com.kidfavor.productservice.dto.request.ProductFilter;
+import com.kidfavor.productservice.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Builds catalog queries from {@link ProductFilter}.
+ * Only the filters that are set end up in the WHERE clause, so each combination
+ * can use the matching composite index (see V5__Add_product_catalog_indexes.sql).
+ */
+public final class ProductSpecifications {
+    
+    private ProductSpecifications() {
+    }
+    
+    public static Specification<Product> matching(ProductFilter filter) {
+        Specification<Product> spec = Specification.where(null);
+        if (filter == null) {
+            return spec;
+        }
+        if (filter.getCategoryId() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("category").get("id"), filter.getCategoryId()));
+        }
+        if (filter.getBrandId() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("brand").get("id"), filter.getBrandId()));
+        }
+        if (filter.getActive() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("active"), filter.getActive()));
+        }
+        if (filter.getMinPrice() != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+        }
+        if (filter.getInStock() != null) {
+            spec = spec.and((root, query, cb) -> filter.getInStock()
+                    ? cb.greaterThan(root.get("stock"), 0)
+                    : cb.lessThanOrEqualTo(root.get("stock"), 0));
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,64 @@
+package com.kidfavor.productservice.repository;
+
+import com.kidfavor.productservice.entity.ReservationStatus;
+import com.kidfavor.productservice.entity.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    List<StockReservation> findByReservationIdOrderByProductId(String reservationId);
+    
+    /**
+     * Moves a line from one status to another only if it is still in the expected status,
+     * so concurrent release/confirm calls cannot both act on the same line.
+     */
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") ReservationStatus from,
+                         @Param("to") ReservationStatus to);
+    
+    /**
+     * Stops the RESERVED lines of a reservation from expiring. Returns the number of lines held.
+     */
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.expiresAt = NULL "
+            + "WHERE r.reservationId = :reservationId AND r.status = :status AND r.expiresAt IS NOT NULL")
+    int clearExpiry(@Param("reservationId") String reservationId, @Param("status") ReservationStatus status);
+    
+    /**
+     * Reservations that still have RESERVED lines past their expiry, oldest first.
+     */
+    @Query("SELECT DISTINCT r.reservationId FROM StockReservation r "
+            + "WHERE r.status = :status AND r.expiresAt < :now")
+    List<String> findExpiredReservationIds(@Param("status") ReservationStatus status,
+                                           @Param("now") LocalDateTime now,
+                                           Pageable pageable);
+    
+    /**
+     * Releases one line only if it is still RESERVED and expired, so a concurrent hold,
+     * confirm or release wins over the sweeper.
+     */
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :released "
+            + "WHERE r.id = :id AND r.status = :reserved AND r.expiresAt < :now")
+    int releaseIfExpired(@Param("id") Long id,
+                         @Param("reserved") ReservationStatus reserved,
+                         @Param("released") ReservationStatus released,
+                         @Param("now") LocalDateTime now);
+    
+    /**
+     * Units per product across all reservations not in the given status, as [productId, quantity] rows.
+     */
+    @Query("SELECT r.productId, SUM(r.quantity) FROM StockReservation r WHERE r.status <> :excluded GROUP BY r.productId")
+    List<Object[]> sumQuantityByProduct(@Param("excluded") ReservationStatus excluded);
+}
@@ -0,0 +1,21 @@
+package com.kidfavor.productservice.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Raw result of an index query: product ids in relevance order plus facet counts.
+ * Facet maps go from category/brand id to the number of matching products.
+ */
+@Data
+@AllArgsConstructor
+public class ProductSearchHits {
+    
+    private List<Long> productIds;
+    private long totalHits;
+    private Map<Long, Integer> categoryCounts;
+    private Map<Long, Integer> brandCounts;
+}
@@ -0,0 +1,318 @@
+package com.kidfavor.productservice.search;
+
+import com.kidfavor.productservice.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded Lucene index over product name and description.
+ * Queries are ranked with BM25: exact name matches weigh most, then name prefixes
+ * (search-as-you-type), then description matches, with one-edit typo tolerance on
+ * longer terms. Category and brand are indexed as facets so one query returns both
+ * the ranked page and the facet counts. Only active products are indexed.
+ * The index lives in memory unless app.search.index-dir is set.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+    
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_CATEGORY = "category";
+    private static final String FIELD_BRAND = "brand";
+    private static final String DIM_CATEGORY = "categoryFacet";
+    private static final String DIM_BRAND = "brandFacet";
+    
+    private static final float NAME_BOOST = 3.0f;
+    private static final float PREFIX_BOOST = 1.5f;
+    private static final float FUZZY_BOOST = 0.5f;
+    private static final int MIN_FUZZY_TERM_LENGTH = 4;
+    private static final int MAX_FACET_VALUES = 20;
+    
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    
+    @Value("${app.search.index-dir:}")
+    private String indexDir;
+    
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    
+    // Facet ordinals are rebuilt per reader; cached until the index is refreshed
+    private volatile FacetState facetState;
+    
+    @PostConstruct
+    public void open() throws IOException {
+        directory = indexDir == null || indexDir.isBlank()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Path.of(indexDir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        log.info("Product search index opened ({})", indexDir == null || indexDir.isBlank() ? "in memory" : indexDir);
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+    
+    /**
+     * Replaces the whole index: clear, add the products in batches, then commit.
+     * Searches see the previous contents until the searcher is next refreshed, which
+     * {@link #commit()} does but so does any {@link #index} or {@link #delete} in between;
+     * the indexer therefore starts consuming product changes only after the rebuild.
+     */
+    public void clear() {
+        try {
+            writer.deleteAll();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to clear product search index", ex);
+        }
+    }
+    
+    /**
+     * Adds or replaces each active product, so a product indexed twice keeps one document.
+     */
+    public void addAll(List<Product> products) {
+        try {
+            for (Product product : products) {
+                if (Boolean.TRUE.equals(product.getActive())) {
+                    writer.updateDocument(idTerm(product.getId()), toDocument(product));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to add products to search index", ex);
+        }
+    }
+    
+    public void commit() {
+        try {
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("Product search index committed with {} products", writer.getDocStats().numDocs);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to commit product search index", ex);
+        }
+    }
+    
+    /**
+     * Adds or replaces one product; inactive products are removed from the index.
+     */
+    public void index(Product product) {
+        if (!Boolean.TRUE.equals(product.getActive())) {
+            delete(product.getId());
+            return;
+        }
+        try {
+            writer.updateDocument(idTerm(product.getId()), toDocument(product));
+            searcherManager.maybeRefresh();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to index product " + product.getId(), ex);
+        }
+    }
+    
+    public void delete(Long productId) {
+        try {
+            writer.deleteDocuments(idTerm(productId));
+            searcherManager.maybeRefresh();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to remove product " + productId + " from search index", ex);
+        }
+    }
+    
+    /**
+     * Runs a ranked search. Every keyword term must match name or description,
+     * either exactly, as a prefix or within one edit.
+     */
+    public ProductSearchHits search(String keyword, Long categoryId, Long brandId, int page, int size) {
+        Query query = buildQuery(keyword, categoryId, brandId);
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            FacetsCollector facetsCollector = new FacetsCollector();
+            TopDocs topDocs = FacetsCollector.search(searcher, query, (page + 1) * size, facetsCollector);
+            
+            List<Long> productIds = new ArrayList<>(size);
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = page * size; i < scoreDocs.length; i++) {
+                productIds.add(Long.valueOf(storedFields.document(scoreDocs[i].doc).get(FIELD_ID)));
+            }
+            
+            Facets facets = facets(searcher.getIndexReader(), facetsCollector);
+            return new ProductSearchHits(productIds, topDocs.totalHits.value,
+                    facetCounts(facets, DIM_CATEGORY), facetCounts(facets, DIM_BRAND));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Product search failed", ex);
+        } finally {
+            release(searcher);
+        }
+    }
+    
+    private Query buildQuery(String keyword, Long categoryId, Long brandId) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : analyze(keyword)) {
+            BooleanQuery.Builder termQuery = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(FIELD_NAME, term)), NAME_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new PrefixQuery(new Term(FIELD_NAME, term)), PREFIX_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(FIELD_DESCRIPTION, term)), BooleanClause.Occur.SHOULD);
+            if (term.length() >= MIN_FUZZY_TERM_LENGTH) {
+                termQuery.add(new BoostQuery(new FuzzyQuery(new Term(FIELD_NAME, term), 1), FUZZY_BOOST),
+                        BooleanClause.Occur.SHOULD);
+            }
+            query.add(termQuery.build(), BooleanClause.Occur.MUST);
+        }
+        if (categoryId != null) {
+            query.add(new TermQuery(new Term(FIELD_CATEGORY, categoryId.toString())), BooleanClause.Occur.FILTER);
+        }
+        if (brandId != null) {
+            query.add(new TermQuery(new Term(FIELD_BRAND, brandId.toString())), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+    
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(FIELD_NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to analyze search keyword", ex);
+        }
+        return terms;
+    }
+    
+    private Document toDocument(Product product) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, product.getId().toString(), Field.Store.YES));
+        doc.add(new TextField(FIELD_NAME, product.getName(), Field.Store.NO));
+        if (product.getDescription() != null) {
+            doc.add(new TextField(FIELD_DESCRIPTION, product.getDescription(), Field.Store.NO));
+        }
+        // getId() on a lazy proxy does not load the association
+        if (product.getCategory() != null) {
+            String categoryId = product.getCategory().getId().toString();
+            doc.add(new StringField(FIELD_CATEGORY, categoryId, Field.Store.NO));
+            doc.add(new SortedSetDocValuesFacetField(DIM_CATEGORY, categoryId));
+        }
+        if (product.getBrand() != null) {
+            String brandId = product.getBrand().getId().toString();
+            doc.add(new StringField(FIELD_BRAND, brandId, Field.Store.NO));
+            doc.add(new SortedSetDocValuesFacetField(DIM_BRAND, brandId));
+        }
+        try {
+            return facetsConfig.build(doc);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to build search document for product " + product.getId(), ex);
+        }
+    }
+    
+    /**
+     * Returns null when no indexed product has a category or brand yet.
+     */
+    private Facets facets(IndexReader reader, FacetsCollector collector) throws IOException {
+        try {
+            FacetState cached = facetState;
+            if (cached == null || cached.reader() != reader) {
+                cached = new FacetState(reader, new DefaultSortedSetDocValuesReaderState(reader, facetsConfig));
+                facetState = cached;
+            }
+            return new SortedSetDocValuesFacetCounts(cached.state(), collector);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+    
+    private Map<Long, Integer> facetCounts(Facets facets, String dimension) throws IOException {
+        Map<Long, Integer> counts = new LinkedHashMap<>();
+        if (facets == null) {
+            return counts;
+        }
+        try {
+            FacetResult result = facets.getTopChildren(MAX_FACET_VALUES, dimension);
+            if (result != null) {
+                for (LabelAndValue labelAndValue : result.labelValues) {
+                    counts.put(Long.valueOf(labelAndValue.label), labelAndValue.value.intValue());
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            // Dimension not indexed yet
+        }
+        return counts;
+    }
+    
+    private void release(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException ex) {
+            log.warn("Failed to release index searcher: {}", ex.getMessage());
+        }
+    }
+    
+    private static Term idTerm(Long productId) {
+        return new Term(FIELD_ID, productId.toString());
+    }
+    
+    private record FacetState(IndexReader reader, SortedSetDocValuesReaderState state) {
+    }
+}
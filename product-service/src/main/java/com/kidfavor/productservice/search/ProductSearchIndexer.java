@@ -0,0 +1,239 @@
+package com.kidfavor.productservice.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kidfavor.productservice.entity.Brand;
+import com.kidfavor.productservice.entity.Category;
+import com.kidfavor.productservice.entity.Product;
+import com.kidfavor.productservice.entity.ReservationStatus;
+import com.kidfavor.productservice.event.ProductChangeRecorder;
+import com.kidfavor.productservice.repository.BrandRepository;
+import com.kidfavor.productservice.repository.CategoryRepository;
+import com.kidfavor.productservice.repository.ProductRepository;
+import com.kidfavor.productservice.repository.StockReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link ProductSearchIndex} and {@link SuggestionIndex} in sync with the database.
+ * Both are built once the application is ready and then updated from the
+ * product-changed topic, whose partitions every replica assigns to itself without a consumer
+ * group, so every replica indexes every write. Each change reloads
+ * the product by id, so the indexes always reflect committed state.
+ * The listener starts only after the rebuild and first seeks back to records
+ * published since the rebuild began (less a clock-skew margin), so changes committed
+ * while the database was being read are replayed rather than lost.
+ * Suggestion ranking is refreshed periodically: products by units reserved,
+ * brands and categories by their number of active products.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndexer implements ConsumerSeekAware {
+    
+    static final String LISTENER_ID = "product-search-indexer";
+    
+    private final ProductSearchIndex searchIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final ProductRepository productRepository;
+    private final BrandRepository brandRepository;
+    private final CategoryRepository categoryRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    
+    // Partitions already positioned at the rebuild start (assigned once, when rebuild() starts the container)
+    private final Set<TopicPartition> replayedPartitions = ConcurrentHashMap.newKeySet();
+    private volatile long replayFromMillis;
+    
+    @Value("${app.search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+    
+    @Value("${app.search.replay-margin:30s}")
+    private Duration replayMargin;
+    
+    public ProductSearchIndexer(ProductSearchIndex searchIndex,
+                                SuggestionIndex suggestionIndex,
+                                ProductRepository productRepository,
+                                BrandRepository brandRepository,
+                                CategoryRepository categoryRepository,
+                                StockReservationRepository reservationRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                KafkaListenerEndpointRegistry listenerRegistry) {
+        this.searchIndex = searchIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.productRepository = productRepository;
+        this.brandRepository = brandRepository;
+        this.categoryRepository = categoryRepository;
+        this.reservationRepository = reservationRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.listenerRegistry = listenerRegistry;
+    }
+    
+    /**
+     * Walks the products table in id order, one short read-only transaction per batch,
+     * then starts the product-changed listener.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        replayFromMillis = System.currentTimeMillis() - replayMargin.toMillis();
+        searchIndex.clear();
+        long lastId = 0;
+        List<Product> batch;
+        do {
+            long after = lastId;
+            batch = readOnlyTransaction.execute(status ->
+                    productRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, rebuildBatchSize)));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            searchIndex.addAll(batch);
+            batch.forEach(this::indexSuggestion);
+            lastId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == rebuildBatchSize);
+        searchIndex.commit();
+        
+        refreshSuggestionRanking();
+        log.info("Suggestion index built with {} entries", suggestionIndex.size());
+        
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (container != null && !container.isRunning()) {
+            container.start();
+        }
+    }
+    
+    /**
+     * No offsets are committed, so without a seek the listener would begin at the latest offset
+     * and miss changes published between the database read and the partition assignment.
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        List<TopicPartition> partitions = assignments.keySet().stream()
+                .filter(replayedPartitions::add)
+                .toList();
+        if (!partitions.isEmpty()) {
+            callback.seekToTimestamp(partitions, replayFromMillis);
+        }
+    }
+    
+    @KafkaListener(
+            id = LISTENER_ID,
+            idIsGroup = false,
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = "${app.kafka.topics.product-changed}",
+                    partitions = "#{@kafkaPartitionFinder.partitions('${app.kafka.topics.product-changed}')}"),
+            containerFactory = "productChangedListenerContainerFactory",
+            autoStartup = "false"
+    )
+    public void onProductChanged(ConsumerRecord<String, String> record) {
+        if (record.key() == null || isStockOnly(record.value())) {
+            return;
+        }
+        Long productId = Long.valueOf(record.key());
+        Optional<Product> product = productRepository.findById(productId);
+        if (product.isPresent()) {
+            searchIndex.index(product.get());
+            indexSuggestion(product.get());
+        } else {
+            searchIndex.delete(productId);
+            suggestionIndex.remove(SuggestionIndex.Type.PRODUCT, productId);
+        }
+    }
+    
+    /**
+     * Re-reads popularity and the brand and category names, which change without events.
+     */
+    @Scheduled(initialDelayString = "${app.suggest.ranking-refresh-ms:300000}",
+               fixedDelayString = "${app.suggest.ranking-refresh-ms:300000}")
+    public void refreshSuggestionRanking() {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                Map<Long, Long> reserved = toCounts(reservationRepository.sumQuantityByProduct(ReservationStatus.RELEASED));
+                for (Long productId : suggestionIndex.ids(SuggestionIndex.Type.PRODUCT)) {
+                    suggestionIndex.setWeight(SuggestionIndex.Type.PRODUCT, productId,
+                            1 + reserved.getOrDefault(productId, 0L));
+                }
+                
+                syncNames(SuggestionIndex.Type.BRAND, brandRepository.findAll().stream()
+                        .filter(brand -> Boolean.TRUE.equals(brand.getActive()))
+                        .collect(Collectors.toMap(Brand::getId, Brand::getName)),
+                        toCounts(productRepository.countActiveByBrand()));
+                syncNames(SuggestionIndex.Type.CATEGORY, categoryRepository.findAll().stream()
+                        .filter(category -> Boolean.TRUE.equals(category.getActive()))
+                        .collect(Collectors.toMap(Category::getId, Category::getName)),
+                        toCounts(productRepository.countActiveByCategory()));
+            });
+        } catch (Exception ex) {
+            log.error("Failed to refresh suggestion ranking: {}", ex.getMessage(), ex);
+        }
+    }
+    
+    private void indexSuggestion(Product product) {
+        if (Boolean.TRUE.equals(product.getActive())) {
+            suggestionIndex.put(SuggestionIndex.Type.PRODUCT, product.getId(), product.getName());
+        } else {
+            suggestionIndex.remove(SuggestionIndex.Type.PRODUCT, product.getId());
+        }
+    }
+    
+    private void syncNames(SuggestionIndex.Type type, Map<Long, String> names, Map<Long, Long> weights) {
+        Set<Long> stale = suggestionIndex.ids(type);
+        stale.removeAll(names.keySet());
+        stale.forEach(id -> suggestionIndex.remove(type, id));
+        names.forEach((id, name) -> {
+            suggestionIndex.put(type, id, name);
+            suggestionIndex.setWeight(type, id, weights.getOrDefault(id, 0L));
+        });
+    }
+    
+    private static Map<Long, Long> toCounts(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+    
+    /**
+     * Stock is neither searchable nor suggested, so stock-only changes
+     * (one per reserved basket line) are skipped.
+     */
+    private boolean isStockOnly(String value) {
+        if (value == null) {
+            return false;
+        }
+        try {
+            JsonNode changedFields = objectMapper.readTree(value).path("changedFields");
+            return changedFields.size() == 1
+                    && ProductChangeRecorder.FIELD_STOCK.equals(changedFields.get(0).asText());
+        } catch (Exception ex) {
+            log.warn("Unreadable product change, reindexing anyway: {}", ex.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.kidfavor.productservice.search;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index for search-as-you-type, ranked by weight.
+ * The trie is stored in parallel primitive arrays (first-child / next-sibling links),
+ * so memory grows with the number of distinct prefixes rather than with node objects.
+ * Every node keeps the highest weight below it, which lets a lookup visit the best
+ * branches first and stop after {@code limit} results instead of walking the subtree.
+ * Each name is indexed from the start of every word, so "lotion" finds "Baby Lotion".
+ * Keys are capped at {@link #MAX_KEY_LENGTH} characters; longer prefixes are checked
+ * against the full name. Updates mark old entries removed, and the arrays are compacted
+ * once removed entries outnumber live ones.
+ */
+@Component
+public class SuggestionIndex {
+
+    public enum Type {
+        PRODUCT,
+        BRAND,
+        CATEGORY
+    }
+
+    public record Suggestion(Type type, long id, String text, long weight) {
+    }
+
+    private static final int MAX_KEY_LENGTH = 24;
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Trie nodes
+    private char[] nodeChar;
+    private int[] nodeFirstChild;
+    private int[] nodeNextSibling;
+    private int[] nodeFirstPosting;
+    private long[] nodeMaxWeight;
+    private int nodeCount;
+
+    // Postings: entries whose key ends at a node, linked per node
+    private int[] postingEntry;
+    private int[] postingNext;
+    private int postingCount;
+
+    // Entries; a negative weight marks a removed entry
+    private String[] entryText;
+    private byte[] entryType;
+    private long[] entryId;
+    private long[] entryWeight;
+    private int entryCount;
+    private int removedCount;
+
+    private final List<Map<Long, Integer>> entryByTypeAndId = new ArrayList<>();
+
+    public SuggestionIndex() {
+        for (int i = 0; i < Type.values().length; i++) {
+            entryByTypeAndId.add(new HashMap<>());
+        }
+        reset();
+    }
+
+    /**
+     * Adds an entry or renames an existing one, keeping its weight.
+     * New entries start with weight 1.
+     */
+    public void put(Type type, long id, String text) {
+        if (text == null || text.isBlank()) {
+            remove(type, id);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existing = entryByTypeAndId.get(type.ordinal()).get(id);
+            long weight = 1;
+            if (existing != null) {
+                if (text.equals(entryText[existing])) {
+                    return;
+                }
+                weight = entryWeight[existing];
+                removeEntry(existing);
+            }
+            addEntry(type, id, text, weight);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Type type, long id) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = entryByTypeAndId.get(type.ordinal()).get(id);
+            if (existing != null) {
+                removeEntry(existing);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the ranking weight of an existing entry. Node bounds are only raised,
+     * never lowered; a stale bound costs a little extra work but never a wrong result.
+     */
+    public void setWeight(Type type, long id, long weight) {
+        lock.writeLock().lock();
+        try {
+            Integer entry = entryByTypeAndId.get(type.ordinal()).get(id);
+            if (entry == null || entryWeight[entry] == weight) {
+                return;
+            }
+            entryWeight[entry] = Math.max(0, weight);
+            if (weight > 0) {
+                for (String key : keys(entryText[entry])) {
+                    insertKey(key, entry, false);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Set<Long> ids(Type type) {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(entryByTypeAndId.get(type.ordinal()).keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entryCount - removedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries with a word starting with {@code prefix},
+     * highest weight first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+        String key = normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+
+        lock.readLock().lock();
+        try {
+            int start = findNode(key);
+            if (start == NONE) {
+                return Collections.emptyList();
+            }
+
+            // Best-first walk: [weight, isEntry, index]. An entry pops only once no
+            // remaining branch can beat it, so results come out in weight order.
+            PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(b[0], a[0]));
+            queue.add(new long[]{nodeMaxWeight[start], 0, start});
+            Set<Integer> seen = new HashSet<>();
+            List<Suggestion> results = new ArrayList<>(limit);
+
+            while (!queue.isEmpty() && results.size() < limit) {
+                long[] item = queue.poll();
+                int index = (int) item[2];
+                if (item[1] == 1) {
+                    if (seen.add(index) && matchesLongPrefix(index, normalized)) {
+                        results.add(new Suggestion(Type.values()[entryType[index]], entryId[index],
+                                entryText[index], entryWeight[index]));
+                    }
+                    continue;
+                }
+                for (int p = nodeFirstPosting[index]; p != NONE; p = postingNext[p]) {
+                    int entry = postingEntry[p];
+                    if (entryWeight[entry] >= 0 && !seen.contains(entry)) {
+                        queue.add(new long[]{entryWeight[entry], 1, entry});
+                    }
+                }
+                for (int child = nodeFirstChild[index]; child != NONE; child = nodeNextSibling[child]) {
+                    queue.add(new long[]{nodeMaxWeight[child], 0, child});
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addEntry(Type type, long id, String text, long weight) {
+        int entry = entryCount++;
+        if (entry == entryText.length) {
+            int capacity = entryText.length * 2;
+            entryText = Arrays.copyOf(entryText, capacity);
+            entryType = Arrays.copyOf(entryType, capacity);
+            entryId = Arrays.copyOf(entryId, capacity);
+            entryWeight = Arrays.copyOf(entryWeight, capacity);
+        }
+        entryText[entry] = text;
+        entryType[entry] = (byte) type.ordinal();
+        entryId[entry] = id;
+        entryWeight[entry] = weight;
+        entryByTypeAndId.get(type.ordinal()).put(id, entry);
+
+        for (String key : keys(text)) {
+            insertKey(key, entry, true);
+        }
+    }
+
+    private void removeEntry(int entry) {
+        entryByTypeAndId.get(entryType[entry]).remove(entryId[entry]);
+        entryWeight[entry] = NONE;
+        entryText[entry] = null;
+        removedCount++;
+    }
+
+    /**
+     * Walks or creates the path for {@code key}, raising node bounds to the entry's weight.
+     */
+    private void insertKey(String key, int entry, boolean addPosting) {
+        long weight = entryWeight[entry];
+        int node = ROOT;
+        nodeMaxWeight[node] = Math.max(nodeMaxWeight[node], weight);
+        for (int i = 0; i < key.length(); i++) {
+            node = childOrCreate(node, key.charAt(i));
+            nodeMaxWeight[node] = Math.max(nodeMaxWeight[node], weight);
+        }
+        if (addPosting && !hasPosting(node, entry)) {
+            int posting = postingCount++;
+            if (posting == postingEntry.length) {
+                int capacity = postingEntry.length * 2;
+                postingEntry = Arrays.copyOf(postingEntry, capacity);
+                postingNext = Arrays.copyOf(postingNext, capacity);
+            }
+            postingEntry[posting] = entry;
+            postingNext[posting] = nodeFirstPosting[node];
+            nodeFirstPosting[node] = posting;
+        }
+    }
+
+    private boolean hasPosting(int node, int entry) {
+        for (int p = nodeFirstPosting[node]; p != NONE; p = postingNext[p]) {
+            if (postingEntry[p] == entry) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int findNode(String key) {
+        int node = ROOT;
+        for (int i = 0; i < key.length() && node != NONE; i++) {
+            node = child(node, key.charAt(i));
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        for (int child = nodeFirstChild[node]; child != NONE; child = nodeNextSibling[child]) {
+            if (nodeChar[child] == c) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int childOrCreate(int node, char c) {
+        int existing = child(node, c);
+        if (existing != NONE) {
+            return existing;
+        }
+        int created = nodeCount++;
+        if (created == nodeChar.length) {
+            int capacity = nodeChar.length * 2;
+            nodeChar = Arrays.copyOf(nodeChar, capacity);
+            nodeFirstChild = Arrays.copyOf(nodeFirstChild, capacity);
+            nodeNextSibling = Arrays.copyOf(nodeNextSibling, capacity);
+            nodeFirstPosting = Arrays.copyOf(nodeFirstPosting, capacity);
+            nodeMaxWeight = Arrays.copyOf(nodeMaxWeight, capacity);
+        }
+        nodeChar[created] = c;
+        nodeFirstChild[created] = NONE;
+        nodeFirstPosting[created] = NONE;
+        nodeMaxWeight[created] = 0;
+        nodeNextSibling[created] = nodeFirstChild[node];
+        nodeFirstChild[node] = created;
+        return created;
+    }
+
+    /**
+     * Prefixes beyond the key cap are verified against the entry's full name.
+     */
+    private boolean matchesLongPrefix(int entry, String normalizedPrefix) {
+        if (normalizedPrefix.length() <= MAX_KEY_LENGTH) {
+            return true;
+        }
+        String text = normalize(entryText[entry]);
+        return text.startsWith(normalizedPrefix) || text.contains(" " + normalizedPrefix);
+    }
+
+    /**
+     * Drops removed entries and their unreachable nodes once they outnumber live entries.
+     */
+    private void compactIfNeeded() {
+        if (removedCount < INITIAL_CAPACITY || removedCount < entryCount - removedCount) {
+            return;
+        }
+        String[] texts = entryText;
+        byte[] types = entryType;
+        long[] ids = entryId;
+        long[] weights = entryWeight;
+        int count = entryCount;
+
+        reset();
+        for (Map<Long, Integer> entries : entryByTypeAndId) {
+            entries.clear();
+        }
+        for (int i = 0; i < count; i++) {
+            if (weights[i] >= 0) {
+                addEntry(Type.values()[types[i]], ids[i], texts[i], weights[i]);
+            }
+        }
+    }
+
+    private void reset() {
+        nodeChar = new char[INITIAL_CAPACITY];
+        nodeFirstChild = new int[INITIAL_CAPACITY];
+        nodeNextSibling = new int[INITIAL_CAPACITY];
+        nodeFirstPosting = new int[INITIAL_CAPACITY];
+        nodeMaxWeight = new long[INITIAL_CAPACITY];
+        nodeFirstChild[ROOT] = NONE;
+        nodeNextSibling[ROOT] = NONE;
+        nodeFirstPosting[ROOT] = NONE;
+        nodeCount = 1;
+
+        postingEntry = new int[INITIAL_CAPACITY];
+        postingNext = new int[INITIAL_CAPACITY];
+        postingCount = 0;
+
+        entryText = new String[INITIAL_CAPACITY];
+        entryType = new byte[INITIAL_CAPACITY];
+        entryId = new long[INITIAL_CAPACITY];
+        entryWeight = new long[INITIAL_CAPACITY];
+        entryCount = 0;
+        removedCount = 0;
+    }
+
+    /**
+     * One key per word start, each capped at MAX_KEY_LENGTH characters.
+     */
+    private static List<String> keys(String text) {
+        String normalized = normalize(text);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i, Math.min(normalized.length(), i + MAX_KEY_LENGTH)));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Lower-cases, strips accents (so "sua" finds "Sữa") and collapses punctuation to single spaces.
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('\u0111', 'd')
+                .replace('\u0110', 'D');
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase()).replaceAll(" ").trim();
+    }
+}
@@ -1,23 +1,38 @@
 package com.kidfavor.productservice.service;
 
 import com.kidfavor.productservice.dto.request.ProductCreateRequest;
+import com.kidfavor.productservice.dto.request.ProductFilter;
 import com.kidfavor.productservice.dto.request.ProductUpdateRequest;
+import com.kidfavor.productservice.dto.response.PageResponse;
 import com.kidfavor.productservice.dto.response.ProductResponse;
+import com.kidfavor.productservice.dto.response.ProductSearchResponse;
+import com.kidfavor.productservice.dto.response.SuggestionResponse;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductService {
     
-    List<ProductResponse> getAllProducts();
+    PageResponse<ProductResponse> getProducts(ProductFilter filter, Pageable pageable);
+    
+    /**
+     * Opaque version of the products matching the filter, covering the categories and brands
+     * they embed. Changes whenever the listing would; used as the collection ETag.
+     */
+    String getProductsVersion(ProductFilter filter);
     
     Optional<ProductResponse> getProductById(Long id);
     
+    List<ProductResponse> getProductsByIds(List<Long> ids);
+    
     List<ProductResponse> getProductsByCategory(Long categoryId);
     
     List<ProductResponse> getProductsByBrand(Long brandId);
     
-    List<ProductResponse> searchProducts(String keyword);
+    ProductSearchResponse searchProducts(String keyword, Long categoryId, Long brandId, int page, int size);
+    
+    List<SuggestionResponse> suggest(String prefix, int limit);
     
     ProductResponse createProduct(ProductCreateRequest request);
     
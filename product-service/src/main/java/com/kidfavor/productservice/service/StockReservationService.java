@@ -0,0 +1,37 @@
+package com.kidfavor.productservice.service;
+
+import com.kidfavor.productservice.dto.request.StockReservationRequest;
+import com.kidfavor.productservice.dto.response.StockReservationResponse;
+
+public interface StockReservationService {
+    
+    /**
+     * Reserves stock for every line of the basket, all or nothing.
+     * Repeating a reservation ID returns the existing reservation instead of reserving twice.
+     */
+    StockReservationResponse reserve(StockReservationRequest request);
+    
+    /**
+     * Returns reserved or confirmed stock to the products, e.g. when an order is cancelled.
+     * Lines already released are left as is, and releasing an unknown reservation is a no-op,
+     * so callers may release before they know whether the reservation was made.
+     */
+    StockReservationResponse release(String reservationId);
+    
+    /**
+     * Marks the reservation as final once the order is confirmed.
+     * Fails if any line was already released, so the order cannot be confirmed without its stock.
+     */
+    StockReservationResponse confirm(String reservationId);
+    
+    /**
+     * Stops the reservation from expiring once its order has been placed.
+     * Fails if any line was already released, e.g. by the expiry sweep.
+     */
+    void hold(String reservationId);
+    
+    /**
+     * Returns the stock of RESERVED lines whose order was never placed.
+     */
+    void releaseExpired();
+}
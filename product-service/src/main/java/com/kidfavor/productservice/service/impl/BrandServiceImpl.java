@@ -1,5 +1,6 @@
 package com.kidfavor.productservice.service.impl;
 
+import com.kidfavor.productservice.cache.CacheNames;
 import com.kidfavor.productservice.dto.request.BrandCreateRequest;
 import com.kidfavor.productservice.dto.request.BrandUpdateRequest;
 import com.kidfavor.productservice.dto.response.BrandResponse;
@@ -8,6 +9,9 @@ import com.kidfavor.productservice.mapper.BrandMapper;
 import com.kidfavor.productservice.repository.BrandRepository;
 import com.kidfavor.productservice.service.BrandService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,12 +27,14 @@ public class BrandServiceImpl implements BrandService {
     private final BrandMapper brandMapper;
     
     @Override
+    @Cacheable(value = CacheNames.BRANDS, key = CacheNames.ALL_KEY, sync = true)
     public List<BrandResponse> getAllBrands() {
         List<Brand> brands = brandRepository.findAll();
         return brandMapper.toResponseList(brands);
     }
     
     @Override
+    @Cacheable(value = CacheNames.BRAND, key = "#id", sync = true)
     public Optional<BrandResponse> getBrandById(Long id) {
         return brandRepository.findById(id)
                 .map(brandMapper::toResponse);
@@ -41,6 +47,10 @@ public class BrandServiceImpl implements BrandService {
     }
     
     @Override
+    @Caching(evict = {
+        @CacheEvict(value = CacheNames.BRANDS, key = CacheNames.ALL_KEY),
+        @CacheEvict(value = CacheNames.BRAND, key = "#result.id")
+    })
     public BrandResponse createBrand(BrandCreateRequest request) {
         Brand brand = brandMapper.toEntity(request);
         Brand savedBrand = brandRepository.save(brand);
@@ -48,6 +58,12 @@ public class BrandServiceImpl implements BrandService {
     }
     
     @Override
+    @Caching(evict = {
+        @CacheEvict(value = CacheNames.BRANDS, key = CacheNames.ALL_KEY),
+        @CacheEvict(value = CacheNames.BRAND, key = "#id"),
+        // Product responses embed the brand
+        @CacheEvict(value = CacheNames.PRODUCT, allEntries = true)
+    })
     public BrandResponse updateBrand(Long id, BrandUpdateRequest request) {
         Brand brand = brandRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Brand not found with id: " + id));
@@ -58,6 +74,12 @@ public class BrandServiceImpl implements BrandService {
     }
     
     @Override
+    @Caching(evict = {
+        @CacheEvict(value = CacheNames.BRANDS, key = CacheNames.ALL_KEY),
+        @CacheEvict(value = CacheNames.BRAND, key = "#id"),
+        // Product responses embed the brand
+        @CacheEvict(value = CacheNames.PRODUCT, allEntries = true)
+    })
     public void deleteBrand(Long id) {
         brandRepository.deleteById(id);
     }
@@ -1,5 +1,6 @@
 package com.kidfavor.productservice.service.impl;
 
+import com.kidfavor.productservice.cache.CacheNames;
 import com.kidfavor.productservice.dto.request.CategoryCreateRequest;
 import com.kidfavor.productservice.dto.request.CategoryUpdateRequest;
 import com.kidfavor.productservice.dto.response.CategoryResponse;
@@ -8,6 +9,9 @@ import com.kidfavor.productservice.mapper.CategoryMapper;
 import com.kidfavor.productservice.repository.CategoryRepository;
 import com.kidfavor.productservice.service.CategoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,12 +27,14 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryMapper categoryMapper;
     
     @Override
+    @Cacheable(value = CacheNames.CATEGORIES, key = CacheNames.ALL_KEY, sync = true)
     public List<CategoryResponse> getAllCategories() {
         List<Category> categories = categoryRepository.findAll();
         return categoryMapper.toResponseList(categories);
     }
     
     @Override
+    @Cacheable(value = CacheNames.CATEGORY, key = "#id", sync = true)
     public Optional<CategoryResponse> getCategoryById(Long id) {
         return categoryRepository.findById(id)
                 .map(categoryMapper::toResponse);
@@ -41,6 +47,10 @@ public class CategoryServiceImpl implements CategoryService {
     }
     
     @Override
+    @Caching(evict = {
+        @CacheEvict(value = CacheNames.CATEGORIES, key = CacheNames.ALL_KEY),
+        @CacheEvict(value = CacheNames.CATEGORY, key = "#result.id")
+    })
     public CategoryResponse createCategory(CategoryCreateRequest request) {
         Category category = categoryMapper.toEntity(request);
         Category savedCategory = categoryRepository.save(category);
@@ -48,6 +58,12 @@ public class CategoryServiceImpl implements CategoryService {
     }
     
     @Override
+    @Caching(evict = {
+        @CacheEvict(value = CacheNames.CATEGORIES, key = CacheNames.ALL_KEY),
+        @CacheEvict(value = CacheNames.CATEGORY, key = "#id"),
+        // Product responses embed the category
+        @CacheEvict(value = CacheNames.PRODUCT, allEntries = true)
+    })
     public CategoryResponse updateCategory(Long id, CategoryUpdateRequest request) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
@@ -58,6 +74,12 @@ public class CategoryServiceImpl implements CategoryService {
     }
     
     @Override
+    @Caching(evict = {
+        @CacheEvict(value = CacheNames.CATEGORIES, key = CacheNames.ALL_KEY),
+        @CacheEvict(value = CacheNames.CATEGORY, key = "#id"),
+        // Product responses embed the category
+        @CacheEvict(value = CacheNames.PRODUCT, allEntries = true)
+    })
     public void deleteCategory(Long id) {
         categoryRepository.deleteById(id);
     }
@@ -1,45 +1,104 @@
 package com.kidfavor.productservice.service.impl;
 
+import com.kidfavor.productservice.cache.CacheNames;
 import com.kidfavor.productservice.dto.request.ProductCreateRequest;
+import com.kidfavor.productservice.dto.request.ProductFilter;
 import com.kidfavor.productservice.dto.request.ProductUpdateRequest;
+import com.kidfavor.productservice.dto.response.FacetCountResponse;
+import com.kidfavor.productservice.dto.response.PageResponse;
 import com.kidfavor.productservice.dto.response.ProductResponse;
+import com.kidfavor.productservice.dto.response.ProductSearchResponse;
+import com.kidfavor.productservice.dto.response.SuggestionResponse;
 import com.kidfavor.productservice.entity.Brand;
 import com.kidfavor.productservice.entity.Category;
 import com.kidfavor.productservice.entity.Product;
+import com.kidfavor.productservice.entity.ProductChangeType;
+import com.kidfavor.productservice.event.ProductChangeRecorder;
 import com.kidfavor.productservice.mapper.ProductMapper;
 import com.kidfavor.productservice.repository.BrandRepository;
+import com.kidfavor.productservice.repository.CatalogStamp;
 import com.kidfavor.productservice.repository.CategoryRepository;
 import com.kidfavor.productservice.repository.ProductRepository;
+import com.kidfavor.productservice.repository.ProductSpecifications;
+import com.kidfavor.productservice.search.ProductSearchHits;
+import com.kidfavor.productservice.search.ProductSearchIndex;
+import com.kidfavor.productservice.search.SuggestionIndex;
 import com.kidfavor.productservice.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ProductServiceImpl implements ProductService {
     
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("name", "price", "stock", "createdAt", "id");
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_WINDOW = 10_000;
+    private static final int MAX_SUGGESTIONS = 20;
+    
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final BrandRepository brandRepository;
     private final ProductMapper productMapper;
+    private final ProductChangeRecorder productChangeRecorder;
+    private final ProductSearchIndex productSearchIndex;
+    private final SuggestionIndex suggestionIndex;
     
     @Override
-    public List<ProductResponse> getAllProducts() {
-        List<Product> products = productRepository.findAll();
-        return productMapper.toResponseList(products);
+    @Transactional(readOnly = true)
+    public PageResponse<ProductResponse> getProducts(ProductFilter filter, Pageable pageable) {
+        if (filter != null && filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        Page<Product> page = productRepository.findAll(ProductSpecifications.matching(filter), stableOrder(pageable));
+        return PageResponse.of(page, productMapper::toResponseList);
+    }
+    
+    /**
+     * Three aggregate queries, all cheaper than loading the page they stand for.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getProductsVersion(ProductFilter filter) {
+        CatalogStamp products = productRepository.stamp(ProductSpecifications.matching(filter));
+        CatalogStamp categories = categoryRepository.stamp();
+        CatalogStamp brands = brandRepository.stamp();
+        return products.count() + ":" + products.lastModified()
+                + ":" + categories.lastModified() + ":" + brands.lastModified();
     }
     
     @Override
+    @Cacheable(value = CacheNames.PRODUCT, key = "#id", sync = true)
     public Optional<ProductResponse> getProductById(Long id) {
         return productRepository.findById(id)
                 .map(productMapper::toResponse);
     }
     
+    @Override
+    public List<ProductResponse> getProductsByIds(List<Long> ids) {
+        List<Product> products = productRepository.findAllById(ids);
+        return productMapper.toResponseList(products);
+    }
+    
     @Override
     public List<ProductResponse> getProductsByCategory(Long categoryId) {
         List<Product> products = productRepository.findByCategoryId(categoryId);
@@ -53,12 +112,43 @@ public class ProductServiceImpl implements ProductService {
     }
     
     @Override
-    public List<ProductResponse> searchProducts(String keyword) {
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(keyword);
-        return productMapper.toResponseList(products);
+    @Transactional(readOnly = true)
+    public ProductSearchResponse searchProducts(String keyword, Long categoryId, Long brandId, int page, int size) {
+        if (keyword == null || keyword.isBlank()) {
+            throw new IllegalArgumentException("Search keyword must not be blank");
+        }
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must be >= 0 and size >= 1");
+        }
+        int pageSize = Math.min(size, MAX_SEARCH_PAGE_SIZE);
+        if ((long) (page + 1) * pageSize > MAX_SEARCH_WINDOW) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_SEARCH_WINDOW + " hits");
+        }
+        
+        ProductSearchHits hits = productSearchIndex.search(keyword, categoryId, brandId, page, pageSize);
+        
+        // Load the page in one query, then restore relevance order
+        Map<Long, Product> products = productRepository.findAllById(hits.getProductIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> ranked = hits.getProductIds().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        
+        return ProductSearchResponse.builder()
+                .content(productMapper.toResponseList(ranked))
+                .page(page)
+                .size(pageSize)
+                .totalHits(hits.getTotalHits())
+                .categories(facetCounts(hits.getCategoryCounts(), ids -> categoryRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Category::getId, Category::getName))))
+                .brands(facetCounts(hits.getBrandCounts(), ids -> brandRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Brand::getId, Brand::getName))))
+                .build();
     }
     
     @Override
+    @CacheEvict(value = CacheNames.PRODUCT, key = "#result.id")
     public ProductResponse createProduct(ProductCreateRequest request) {
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + request.getCategoryId()));
@@ -68,10 +158,12 @@ public class ProductServiceImpl implements ProductService {
         
         Product product = productMapper.toEntity(request, category, brand);
         Product savedProduct = productRepository.save(product);
+        productChangeRecorder.record(savedProduct.getId(), ProductChangeType.CREATED, List.of());
         return productMapper.toResponse(savedProduct);
     }
     
     @Override
+    @CacheEvict(value = CacheNames.PRODUCT, key = "#id")
     public ProductResponse updateProduct(Long id, ProductUpdateRequest request) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -88,13 +180,105 @@ public class ProductServiceImpl implements ProductService {
                     .orElseThrow(() -> new RuntimeException("Brand not found with id: " + request.getBrandId()));
         }
         
+        Product before = snapshot(product);
         productMapper.updateEntity(product, request, category, brand);
-        Product updatedProduct = productRepository.save(product);
+        // Flush now so a concurrent update fails here (409) and the response carries the new version
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        
+        List<String> changedFields = changedFields(before, updatedProduct);
+        if (!changedFields.isEmpty()) {
+            productChangeRecorder.record(id, ProductChangeType.UPDATED, changedFields);
+        }
         return productMapper.toResponse(updatedProduct);
     }
     
     @Override
+    @CacheEvict(value = CacheNames.PRODUCT, key = "#id")
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        productChangeRecorder.record(id, ProductChangeType.DELETED, List.of());
+    }
+    
+    /**
+     * Served entirely from memory; no database access.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS)).stream()
+                .map(suggestion -> SuggestionResponse.builder()
+                        .type(suggestion.type().name())
+                        .id(suggestion.id())
+                        .text(suggestion.text())
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    private List<FacetCountResponse> facetCounts(Map<Long, Integer> counts,
+                                                 Function<Set<Long>, Map<Long, String>> namesById) {
+        if (counts.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> names = namesById.apply(counts.keySet());
+        return counts.entrySet().stream()
+                .map(entry -> FacetCountResponse.builder()
+                        .id(entry.getKey())
+                        .name(names.get(entry.getKey()))
+                        .count(entry.getValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Rejects sorts on unindexed or unknown properties and adds id as a tie-breaker,
+     * so rows with equal sort keys never move between pages.
+     */
+    private Pageable stableOrder(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort products by " + order.getProperty()
+                        + "; supported: " + SORTABLE_PROPERTIES);
+            }
+        }
+        Sort sort = pageable.getSort().isSorted()
+                ? pageable.getSort()
+                : Sort.by(Sort.Direction.DESC, "createdAt");
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by(Sort.Direction.DESC, "id"));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+    
+    /**
+     * Copies the fields an update can change, to diff against afterwards.
+     */
+    private Product snapshot(Product product) {
+        Product copy = new Product();
+        copy.setName(product.getName());
+        copy.setDescription(product.getDescription());
+        copy.setPrice(product.getPrice());
+        copy.setCategory(product.getCategory());
+        copy.setBrand(product.getBrand());
+        return copy;
+    }
+    
+    private List<String> changedFields(Product before, Product after) {
+        List<String> fields = new ArrayList<>();
+        if (!Objects.equals(before.getName(), after.getName())) {
+            fields.add("name");
+        }
+        if (!Objects.equals(before.getDescription(), after.getDescription())) {
+            fields.add("description");
+        }
+        if (before.getPrice().compareTo(after.getPrice()) != 0) {
+            fields.add("price");
+        }
+        if (before.getCategory() != after.getCategory()) {
+            fields.add("category");
+        }
+        if (before.getBrand() != after.getBrand()) {
+            fields.add("brand");
+        }
+        return fields;
     }
 }
@@ -0,0 +1,313 @@
+package com.kidfavor.productservice.service.impl;
+
+import com.kidfavor.productservice.cache.CacheNames;
+import com.kidfavor.productservice.dto.request.StockReservationItemRequest;
+import com.kidfavor.productservice.dto.request.StockReservationRequest;
+import com.kidfavor.productservice.dto.response.StockReservationLineResponse;
+import com.kidfavor.productservice.dto.response.StockReservationResponse;
+import com.kidfavor.productservice.entity.Product;
+import com.kidfavor.productservice.entity.ReservationStatus;
+import com.kidfavor.productservice.entity.StockReservation;
+import com.kidfavor.productservice.event.ProductChangeRecorder;
+import com.kidfavor.productservice.exception.StockReservationNotFoundException;
+import com.kidfavor.productservice.exception.StockReservationReleasedException;
+import com.kidfavor.productservice.repository.ProductRepository;
+import com.kidfavor.productservice.repository.StockReservationRepository;
+import com.kidfavor.productservice.service.StockReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reserves stock with conditional UPDATEs instead of read-then-check.
+ * Each line is a single "UPDATE ... WHERE stock >= ?" statement, so concurrent buyers
+ * cannot oversell and no row is locked longer than the short reservation transaction.
+ * New reservations expire after app.stock-reservation.ttl unless order-service holds them
+ * before committing the order (see {@link #hold}); a scheduled sweep returns the stock of
+ * expired ones, so a reservation whose order rolled back after a lost or timed-out call is
+ * not held forever. Holding or confirming a reservation that lost its stock fails with 409.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ProductChangeRecorder productChangeRecorder;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.stock-reservation.ttl:30m}")
+    private Duration reservationTtl;
+    
+    @Value("${app.stock-reservation.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    @Override
+    public StockReservationResponse reserve(StockReservationRequest request) {
+        String reservationId = request.getReservationId();
+
+        List<StockReservation> existing = reservationRepository.findByReservationIdOrderByProductId(reservationId);
+        if (!existing.isEmpty()) {
+            log.info("Reservation {} already exists, returning it", reservationId);
+            return toResponse(reservationId, existing);
+        }
+
+        // Merge duplicate products and visit them in id order so concurrent baskets lock rows in the same order
+        Map<Long, Integer> quantities = request.getItems().stream()
+                .collect(Collectors.toMap(StockReservationItemRequest::getProductId,
+                        StockReservationItemRequest::getQuantity, Integer::sum, TreeMap::new));
+
+        List<StockReservationLineResponse> lines = new ArrayList<>(quantities.size());
+        boolean success = true;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            StockReservationLineResponse line = reserveLine(entry.getKey(), entry.getValue());
+            success &= line.isReserved();
+            lines.add(line);
+        }
+
+        if (!success) {
+            // All or nothing: undo the lines that did succeed
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            log.info("Reservation {} rejected: {}", reservationId, lines);
+            return StockReservationResponse.builder()
+                    .reservationId(reservationId)
+                    .success(false)
+                    .lines(lines)
+                    .build();
+        }
+
+        List<StockReservation> reservations = quantities.entrySet().stream()
+                .map(entry -> newReservation(reservationId, entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        reservationRepository.saveAll(reservations);
+        productChangeRecorder.recordStockChanges(quantities.keySet());
+        evictCachedProducts(quantities.keySet());
+
+        log.info("Reservation {} created for {} products", reservationId, reservations.size());
+        return StockReservationResponse.builder()
+                .reservationId(reservationId)
+                .success(true)
+                .status(ReservationStatus.RESERVED)
+                .lines(lines)
+                .build();
+    }
+
+    @Override
+    public StockReservationResponse release(String reservationId) {
+        List<StockReservation> reservations = reservationRepository.findByReservationIdOrderByProductId(reservationId);
+        if (reservations.isEmpty()) {
+            // The caller releases on any failure, including rejected or never-arrived reservations
+            log.debug("Reservation {} not found, nothing to release", reservationId);
+            return StockReservationResponse.builder()
+                    .reservationId(reservationId)
+                    .success(true)
+                    .status(ReservationStatus.RELEASED)
+                    .lines(List.of())
+                    .build();
+        }
+        List<Long> restocked = new ArrayList<>();
+
+        for (StockReservation reservation : reservations) {
+            // Reserved and confirmed lines both return their stock; the conditional update
+            // makes a concurrent or repeated release a no-op
+            if (reservation.getStatus() != ReservationStatus.RELEASED
+                    && reservationRepository.transitionStatus(
+                            reservation.getId(), reservation.getStatus(), ReservationStatus.RELEASED) == 1) {
+                productRepository.incrementStock(reservation.getProductId(), reservation.getQuantity(), LocalDateTime.now());
+                reservation.setStatus(ReservationStatus.RELEASED);
+                restocked.add(reservation.getProductId());
+            }
+        }
+        productChangeRecorder.recordStockChanges(restocked);
+        evictCachedProducts(restocked);
+
+        log.info("Reservation {} released", reservationId);
+        return toResponse(reservationId, reservations);
+    }
+
+    /**
+     * All or nothing: if any line was already released, the confirmation fails with 409 and
+     * the lines confirmed so far roll back, so an order is never confirmed without its stock.
+     */
+    @Override
+    public StockReservationResponse confirm(String reservationId) {
+        List<StockReservation> reservations = findReservation(reservationId);
+
+        for (StockReservation reservation : reservations) {
+            if (reservation.getStatus() == ReservationStatus.CONFIRMED) {
+                continue;
+            }
+            // A RESERVED line that fails the transition was released concurrently
+            if (reservationRepository.transitionStatus(
+                    reservation.getId(), ReservationStatus.RESERVED, ReservationStatus.CONFIRMED) != 1) {
+                throw new StockReservationReleasedException(reservationId);
+            }
+            reservation.setStatus(ReservationStatus.CONFIRMED);
+        }
+
+        log.info("Reservation {} confirmed", reservationId);
+        return toResponse(reservationId, reservations);
+    }
+    
+    /**
+     * Called by order-service in the order transaction, before it commits. Clearing the expiry
+     * and then reading the lines means a sweep that already released a line is seen here, and a
+     * sweep running later finds no expiry to act on.
+     */
+    @Override
+    public void hold(String reservationId) {
+        int held = reservationRepository.clearExpiry(reservationId, ReservationStatus.RESERVED);
+        List<StockReservation> reservations = findReservation(reservationId);
+        if (reservations.stream().anyMatch(reservation -> reservation.getStatus() == ReservationStatus.RELEASED)) {
+            meterRegistry.counter("stock.reservations.expired.before.hold").increment();
+            throw new StockReservationReleasedException(reservationId);
+        }
+        log.debug("Reservation {} held for its placed order ({} lines)", reservationId, held);
+    }
+    
+    /**
+     * One short transaction per expired reservation, so the sweep never holds many row locks.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.stock-reservation.sweep-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void releaseExpired() {
+        List<String> expired;
+        int failures = 0;
+        do {
+            expired = reservationRepository.findExpiredReservationIds(
+                    ReservationStatus.RESERVED, LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+            for (String reservationId : expired) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> releaseExpiredLines(reservationId));
+                } catch (RuntimeException ex) {
+                    failures++;
+                    log.error("Failed to release expired reservation {}: {}", reservationId, ex.getMessage());
+                }
+            }
+            // A failed reservation would be returned again; leave it to the next sweep
+        } while (failures == 0 && expired.size() == sweepBatchSize);
+    }
+    
+    private void releaseExpiredLines(String reservationId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> restocked = new ArrayList<>();
+        for (StockReservation reservation : reservationRepository.findByReservationIdOrderByProductId(reservationId)) {
+            if (reservationRepository.releaseIfExpired(reservation.getId(),
+                    ReservationStatus.RESERVED, ReservationStatus.RELEASED, now) == 1) {
+                productRepository.incrementStock(reservation.getProductId(), reservation.getQuantity(), now);
+                restocked.add(reservation.getProductId());
+            }
+        }
+        if (restocked.isEmpty()) {
+            return;
+        }
+        productChangeRecorder.recordStockChanges(restocked);
+        evictCachedProducts(restocked);
+        meterRegistry.counter("stock.reservations.expired").increment();
+        log.warn("Reservation {} expired without a placed order; released {} lines", reservationId, restocked.size());
+    }
+
+    private StockReservationLineResponse reserveLine(Long productId, int quantity) {
+        if (productRepository.decrementStock(productId, quantity, LocalDateTime.now()) == 1) {
+            return StockReservationLineResponse.builder()
+                    .productId(productId)
+                    .quantity(quantity)
+                    .reserved(true)
+                    .build();
+        }
+
+        // Only the failure path reads the row, to explain why the update matched nothing
+        Optional<Product> product = productRepository.findById(productId);
+        String reason = product.isEmpty()
+                ? StockReservationLineResponse.PRODUCT_NOT_FOUND
+                : !Boolean.TRUE.equals(product.get().getActive())
+                        ? StockReservationLineResponse.PRODUCT_INACTIVE
+                        : StockReservationLineResponse.INSUFFICIENT_STOCK;
+
+        return StockReservationLineResponse.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .reserved(false)
+                .availableStock(product.map(Product::getStock).orElse(null))
+                .failureReason(reason)
+                .build();
+    }
+
+    /**
+     * Cached product responses include stock; the transaction-aware cache evicts after commit.
+     */
+    private void evictCachedProducts(Collection<Long> productIds) {
+        Cache productCache = cacheManager.getCache(CacheNames.PRODUCT);
+        if (productCache != null) {
+            productIds.forEach(productCache::evict);
+        }
+    }
+
+    private List<StockReservation> findReservation(String reservationId) {
+        List<StockReservation> reservations = reservationRepository.findByReservationIdOrderByProductId(reservationId);
+        if (reservations.isEmpty()) {
+            throw new StockReservationNotFoundException(reservationId);
+        }
+        return reservations;
+    }
+
+    private StockReservation newReservation(String reservationId, Long productId, Integer quantity) {
+        StockReservation reservation = new StockReservation();
+        reservation.setReservationId(reservationId);
+        reservation.setProductId(productId);
+        reservation.setQuantity(quantity);
+        reservation.setStatus(ReservationStatus.RESERVED);
+        reservation.setExpiresAt(LocalDateTime.now().plus(reservationTtl));
+        return reservation;
+    }
+
+    /**
+     * Summarises stored lines; a reservation is only as far along as its least advanced line.
+     */
+    private StockReservationResponse toResponse(String reservationId, List<StockReservation> reservations) {
+        ReservationStatus status = reservations.stream()
+                .map(StockReservation::getStatus)
+                .min(Enum::compareTo)
+                .orElse(null);
+
+        List<StockReservationLineResponse> lines = reservations.stream()
+                .map(reservation -> StockReservationLineResponse.builder()
+                        .productId(reservation.getProductId())
+                        .quantity(reservation.getQuantity())
+                        .reserved(reservation.getStatus() != ReservationStatus.RELEASED)
+                        .build())
+                .collect(Collectors.toList());
+
+        return StockReservationResponse.builder()
+                .reservationId(reservationId)
+                .success(true)
+                .status(status)
+                .lines(lines)
+                .build();
+    }
+}
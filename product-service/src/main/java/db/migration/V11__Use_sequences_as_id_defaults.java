@@ -0,0 +1,40 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Points the id column defaults at the sequences created in V8, as order-service V5/V6 do.
+ * V8 left the BIGSERIAL defaults on the old {@code <table>_id_seq} sequences, which still stand
+ * at the pre-V8 maximum while Hibernate hands out ids from {@code <table>_seq}, so a plain-SQL
+ * insert would soon reuse an id Hibernate already assigned. Taking its id from {@code <table>_seq}
+ * instead consumes a whole pooled-lo block, which Hibernate then never uses.
+ * Written in Java because H2 and PostgreSQL spell the column change differently.
+ */
+public class V11__Use_sequences_as_id_defaults extends BaseJavaMigration {
+
+    private static final List<String> TABLES = List.of(
+            "brands", "categories", "products", "product_images", "stock_reservations", "product_outbox");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        boolean postgres = "PostgreSQL".equals(context.getConnection().getMetaData().getDatabaseProductName());
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                String sequence = table + "_seq";
+                if (postgres) {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+                    statement.execute("DROP SEQUENCE IF EXISTS " + table + "_id_seq");
+                } else {
+                    // H2 creates BIGSERIAL columns as identity columns, which cannot take another default
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT NEXT VALUE FOR " + sequence);
+                }
+            }
+        }
+    }
+}
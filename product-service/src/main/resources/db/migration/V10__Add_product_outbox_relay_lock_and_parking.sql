@@ -0,0 +1,11 @@
+-- Single-row lock taken by the relay for each batch, so only one replica publishes at a time.
+-- Records carry the product's state at relay time; serialising the relays keeps the last record
+-- per key on the compacted topic the newest state. (Advisory locks are PostgreSQL-only; this also works on H2.)
+CREATE TABLE IF NOT EXISTS product_outbox_relay_lock (
+    id INTEGER PRIMARY KEY
+);
+INSERT INTO product_outbox_relay_lock (id) VALUES (1);
+
+-- Rows that keep failing are parked after app.outbox.max-attempts so they stop blocking the relay.
+-- A parked row is re-driven by clearing parked_at (and resetting attempts).
+ALTER TABLE product_outbox ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP;
@@ -0,0 +1,11 @@
+-- Create stock_reservations table (one row per reserved basket line)
+CREATE TABLE stock_reservations (
+    id BIGSERIAL PRIMARY KEY,
+    reservation_id VARCHAR(100) NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_stock_reservations_line UNIQUE (reservation_id, product_id)
+);
@@ -0,0 +1,13 @@
+-- Create product_outbox table (pending product change notifications, relayed to Kafka)
+CREATE TABLE product_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    change_type VARCHAR(20) NOT NULL,
+    changed_fields VARCHAR(500),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP,
+    sent_at TIMESTAMP
+);
+
+CREATE INDEX idx_product_outbox_pending ON product_outbox (sent_at, id);
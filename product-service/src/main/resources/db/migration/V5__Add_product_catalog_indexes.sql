@@ -0,0 +1,10 @@
+-- Indexes backing the filtered, paginated catalog (GET /products)
+-- Category and brand listings filter on active and sort or range on price
+CREATE INDEX idx_products_category_active_price ON products (category_id, active, price);
+CREATE INDEX idx_products_brand_active_price ON products (brand_id, active, price);
+
+-- Unfiltered and active-only listings in the default newest-first order
+CREATE INDEX idx_products_active_created ON products (active, created_at, id);
+
+-- Price range and price sort across the whole catalog
+CREATE INDEX idx_products_price ON products (price, id);
@@ -0,0 +1,10 @@
+-- Last-modified timestamps behind the catalog ETags (If-None-Match / 304)
+ALTER TABLE categories ADD COLUMN updated_at TIMESTAMP;
+ALTER TABLE brands ADD COLUMN updated_at TIMESTAMP;
+
+UPDATE categories SET updated_at = CURRENT_TIMESTAMP;
+UPDATE brands SET updated_at = CURRENT_TIMESTAMP;
+UPDATE products SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+
+-- Unfiltered collection ETag: MAX(updated_at) from the index instead of a table scan
+CREATE INDEX idx_products_updated_at ON products (updated_at);
@@ -0,0 +1,2 @@
+-- Optimistic locking: every update checks and increments the row version
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- RESERVED lines expire unless the order that made them is placed: if order-service never commits
+-- the order (or its release call is lost), the sweeper returns the stock once expires_at has passed.
+-- NULL means the line no longer expires (order placed, confirmed, or reserved before this column).
+ALTER TABLE stock_reservations ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+-- Sweeper: WHERE status = 'RESERVED' AND expires_at < ?
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_expiry ON stock_reservations (status, expires_at);
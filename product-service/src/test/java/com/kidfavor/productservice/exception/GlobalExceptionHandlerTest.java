@@ -0,0 +1,72 @@
+package com.kidfavor.productservice.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GlobalExceptionHandlerTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void versionConflictMapsToConflict() throws Exception {
+        mockMvc.perform(get("/conflict"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.detail").value("The resource was modified concurrently; reload it and retry"));
+    }
+
+    @Test
+    void illegalArgumentMapsToBadRequest() throws Exception {
+        mockMvc.perform(get("/bad-filter"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("minPrice must not exceed maxPrice"));
+    }
+
+    @Test
+    void releasedReservationMapsToConflict() throws Exception {
+        mockMvc.perform(get("/released-reservation"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Stock reservation ORD-1 was released and no longer holds its stock"));
+    }
+
+    @Test
+    void unknownReservationMapsToNotFound() throws Exception {
+        mockMvc.perform(get("/unknown-reservation"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Stock reservation not found with id: ORD-2"));
+    }
+
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/conflict")
+        String conflict() {
+            throw new ObjectOptimisticLockingFailureException("Product", 1L);
+        }
+
+        @GetMapping("/bad-filter")
+        String badFilter() {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+
+        @GetMapping("/released-reservation")
+        String releasedReservation() {
+            throw new StockReservationReleasedException("ORD-1");
+        }
+
+        @GetMapping("/unknown-reservation")
+        String unknownReservation() {
+            throw new StockReservationNotFoundException("ORD-2");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.kidfavor.productservice.repository;
+
+import com.kidfavor.productservice.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows inserted by plain SQL take their id from the same sequence as Hibernate (V11),
+ * so neither reuses the other's ids. Runs on H2 with the Flyway migrations.
+ */
+@DataJpaTest
+class ProductIdGenerationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void plainSqlInsertsDoNotReuseHibernateIds() {
+        Long first = productRepository.saveAndFlush(product("Hibernate first")).getId();
+
+        jdbcTemplate.update("INSERT INTO products (name, price) VALUES ('Plain SQL', 10)");
+        Long plain = jdbcTemplate.queryForObject("SELECT id FROM products WHERE name = 'Plain SQL'", Long.class);
+
+        Long second = productRepository.saveAndFlush(product("Hibernate second")).getId();
+
+        assertThat(List.of(first, plain, second)).doesNotHaveDuplicates();
+        assertThat(plain).isGreaterThan(first);
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setStock(1);
+        return product;
+    }
+}
@@ -0,0 +1,157 @@
+package com.kidfavor.productservice.repository;
+
+import com.kidfavor.productservice.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Product @Version under contention, on H2 with the Flyway migrations. Every write runs in
+ * its own committed transaction, so the test itself must not be transactional.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductOptimisticLockingTest {
+
+    private static final int INITIAL_STOCK = 10_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void staleWriteFailsInsteadOfOverwriting() throws Exception {
+        Long productId = createProduct();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch bothRead = new CountDownLatch(2);
+        CountDownLatch firstCommitted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                Product product = productRepository.findById(productId).orElseThrow();
+                bothRead.countDown();
+                await(bothRead);
+                product.setName("first");
+                productRepository.saveAndFlush(product);
+            }));
+            Future<?> second = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                Product product = productRepository.findById(productId).orElseThrow();
+                bothRead.countDown();
+                await(bothRead);
+                await(firstCommitted);
+                product.setName("second");
+                productRepository.saveAndFlush(product);
+            }));
+
+            first.get();
+            firstCommitted.countDown();
+            assertThatThrownBy(second::get).hasCauseInstanceOf(ObjectOptimisticLockingFailureException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Product stored = productRepository.findById(productId).orElseThrow();
+        assertThat(stored.getName()).isEqualTo("first");
+        assertThat(stored.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentEditsAndStockUpdatesLoseNothing() throws Exception {
+        Long productId = createProduct();
+        int editors = 4;
+        int reservers = 4;
+        int writesPerThread = 25;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        ExecutorService executor = Executors.newFixedThreadPool(editors + reservers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < editors; t++) {
+                // Read-modify-write of the whole row, retried on conflict like a client re-reading after a 409
+                futures.add(executor.submit(task(start, () -> {
+                    for (int i = 0; i < writesPerThread; i++) {
+                        while (true) {
+                            try {
+                                transaction.executeWithoutResult(status -> {
+                                    Product product = productRepository.findById(productId).orElseThrow();
+                                    product.setPrice(product.getPrice().add(BigDecimal.ONE));
+                                    productRepository.saveAndFlush(product);
+                                });
+                                break;
+                            } catch (ObjectOptimisticLockingFailureException ex) {
+                                // Lost the race; re-read and apply again
+                            }
+                        }
+                    }
+                })));
+            }
+            for (int t = 0; t < reservers; t++) {
+                // Bulk stock updates, as stock reservations issue them
+                futures.add(executor.submit(task(start, () -> {
+                    for (int i = 0; i < writesPerThread; i++) {
+                        Integer updated = transaction.execute(status ->
+                                productRepository.decrementStock(productId, 1, LocalDateTime.now()));
+                        assertThat(updated).isEqualTo(1);
+                    }
+                })));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Product stored = productRepository.findById(productId).orElseThrow();
+        assertThat(stored.getPrice()).isEqualByComparingTo(BigDecimal.valueOf(10 + editors * writesPerThread));
+        assertThat(stored.getStock()).isEqualTo(INITIAL_STOCK - reservers * writesPerThread);
+        assertThat(stored.getVersion()).isEqualTo((long) (editors + reservers) * writesPerThread);
+    }
+
+    private Long createProduct() {
+        Product product = new Product();
+        product.setName("Contended product");
+        product.setPrice(BigDecimal.TEN);
+        product.setStock(INITIAL_STOCK);
+        return productRepository.saveAndFlush(product).getId();
+    }
+
+    private static Callable<Void> task(CountDownLatch start, Runnable body) {
+        return () -> {
+            start.await();
+            body.run();
+            return null;
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.kidfavor.productservice.repository;
+
+import com.kidfavor.productservice.dto.request.ProductFilter;
+import com.kidfavor.productservice.dto.response.ProductResponse;
+import com.kidfavor.productservice.entity.Brand;
+import com.kidfavor.productservice.entity.Category;
+import com.kidfavor.productservice.entity.Product;
+import com.kidfavor.productservice.entity.ProductImage;
+import com.kidfavor.productservice.mapper.BrandMapper;
+import com.kidfavor.productservice.mapper.CategoryMapper;
+import com.kidfavor.productservice.mapper.ProductMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing queries followed by {@link ProductMapper#toResponse} must not load category,
+ * brand or images per product: one select for the page plus one per 100 products for images.
+ * Runs on H2 with the Flyway migrations.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ProductMapper.class, BrandMapper.class, CategoryMapper.class})
+class ProductRepositoryFetchPlanTest {
+
+    private static final int IMAGE_BATCH_SIZE = 100;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void categoryListingQueryCountDoesNotGrowWithinABatch() {
+        Category small = persistCatalog("small", 5);
+        Category large = persistCatalog("large", IMAGE_BATCH_SIZE);
+
+        long smallQueries = countQueries(() -> productRepository.findByCategoryId(small.getId()), 5);
+        long largeQueries = countQueries(() -> productRepository.findByCategoryId(large.getId()), IMAGE_BATCH_SIZE);
+
+        assertThat(smallQueries).isEqualTo(2);
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    @Test
+    void categoryListingLoadsImagesInBatches() {
+        int size = 250;
+        Category category = persistCatalog("bulk", size);
+
+        long queries = countQueries(() -> productRepository.findByCategoryId(category.getId()), size);
+
+        assertThat(queries).isEqualTo(1 + (size + IMAGE_BATCH_SIZE - 1) / IMAGE_BATCH_SIZE);
+    }
+
+    @Test
+    void brandListingUsesTheSameFetchPlan() {
+        Category category = persistCatalog("by-brand", 30);
+        Long brandId = productRepository.findByCategoryId(category.getId()).get(0).getBrand().getId();
+        entityManager.clear();
+
+        assertThat(countQueries(() -> productRepository.findByBrandId(brandId), 1)).isEqualTo(2);
+    }
+
+    @Test
+    void catalogPageUsesOneSelectPlusCountAndImages() {
+        Category category = persistCatalog("paged", 60);
+        ProductFilter filter = new ProductFilter();
+        filter.setCategoryId(category.getId());
+
+        long queries = countQueries(() -> productRepository.findAll(
+                ProductSpecifications.matching(filter),
+                PageRequest.of(0, 50, Sort.by("id"))).getContent(), 50);
+
+        // Page select, count select (the page is full, so the total is unknown), one images batch
+        assertThat(queries).isEqualTo(3);
+    }
+
+    /**
+     * Runs the listing in a fresh persistence context, maps every product like the
+     * service does, and returns the number of statements executed.
+     */
+    private long countQueries(Supplier<List<Product>> listing, int expectedSize) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<ProductResponse> responses = listing.get().stream()
+                .map(productMapper::toResponse)
+                .toList();
+
+        assertThat(responses).hasSizeGreaterThanOrEqualTo(expectedSize);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getImageUrls()).hasSize(2);
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * One category with {@code size} products, each with its own brand and two images.
+     */
+    private Category persistCatalog(String prefix, int size) {
+        Category category = new Category();
+        category.setName(prefix + "-category");
+        entityManager.persist(category);
+        for (int i = 0; i < size; i++) {
+            Brand brand = new Brand();
+            brand.setName(prefix + "-brand-" + i);
+            entityManager.persist(brand);
+
+            Product product = new Product();
+            product.setName(prefix + " product " + i);
+            product.setPrice(BigDecimal.TEN);
+            product.setStock(5);
+            product.setCategory(category);
+            product.setBrand(brand);
+            entityManager.persist(product);
+
+            for (int j = 0; j < 2; j++) {
+                ProductImage image = new ProductImage();
+                image.setProduct(product);
+                image.setImageUrl("https://img.example/" + prefix + "/" + i + "/" + j + ".png");
+                entityManager.persist(image);
+            }
+        }
+        entityManager.flush();
+        return category;
+    }
+}
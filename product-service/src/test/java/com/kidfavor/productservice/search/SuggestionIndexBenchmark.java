@@ -0,0 +1,155 @@
+package com.kidfavor.productservice.search;
+
+import com.kidfavor.productservice.search.SuggestionIndex.Suggestion;
+import com.kidfavor.productservice.search.SuggestionIndex.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggestion lookups on catalogues of 10,000 and 100,000 product names, against a linear
+ * scan over the same names, for short (broad) and longer (narrow) prefixes. Setup prints the
+ * heap retained by the index; run with -prof gc for allocations per lookup.
+ * <pre>
+ * mvn -P benchmark test -Djmh.args="SuggestionIndexBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SuggestionIndexBenchmark {
+
+    private static final int LIMIT = 10;
+
+    private static final String[] WORDS = {
+            "baby", "lotion", "shampoo", "bottle", "stroller", "diaper", "wipes", "blanket", "pacifier", "teether",
+            "organic", "cotton", "soft", "gentle", "natural", "premium", "travel", "mini", "classic", "sensitive",
+            "milk", "formula", "powder", "cream", "oil", "soap", "towel", "bib", "sock", "hat",
+            "puzzle", "blocks", "rattle", "plush", "bear", "bunny", "car", "train", "book", "crayon"};
+
+    @Param({"10000", "100000"})
+    private int products;
+
+    private SuggestionIndex index;
+    private String[] names;
+    private long[] weights;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        Random random = new Random(42);
+        names = new String[products];
+        weights = new long[products];
+        for (int i = 0; i < products; i++) {
+            int words = 2 + random.nextInt(3);
+            StringBuilder name = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    name.append(' ');
+                }
+                name.append(capitalize(WORDS[random.nextInt(WORDS.length)]));
+            }
+            names[i] = name.append(' ').append(i).toString();
+            weights[i] = random.nextInt(10_000);
+        }
+
+        long before = usedHeap();
+        index = new SuggestionIndex();
+        for (int i = 0; i < products; i++) {
+            index.put(Type.PRODUCT, i, names[i]);
+            index.setWeight(Type.PRODUCT, i, weights[i]);
+        }
+        long retained = usedHeap() - before;
+        System.out.printf("%nSuggestionIndex with %d names retains %.1f MB (%d bytes per name)%n",
+                products, retained / (1024.0 * 1024.0), retained / products);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestBroadPrefix() {
+        return index.suggest(WORDS[nextWord()].substring(0, 1), LIMIT);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestNarrowPrefix() {
+        int word = nextWord();
+        return index.suggest(WORDS[word] + " " + WORDS[(word + 1) % WORDS.length].substring(0, 2), LIMIT);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestMiss() {
+        return index.suggest("zzz" + WORDS[nextWord()], LIMIT);
+    }
+
+    /**
+     * Without an index: match every word of every name, then rank the matches.
+     */
+    @Benchmark
+    public List<String> scanBroadPrefix() {
+        return scan(WORDS[nextWord()].substring(0, 1));
+    }
+
+    @Benchmark
+    public List<String> scanNarrowPrefix() {
+        int word = nextWord();
+        return scan(WORDS[word] + " " + WORDS[(word + 1) % WORDS.length].substring(0, 2));
+    }
+
+    private List<String> scan(String prefix) {
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i].toLowerCase(Locale.ROOT);
+            int start = 0;
+            while (start >= 0) {
+                if (name.startsWith(prefix, start)) {
+                    matches.add(i);
+                    break;
+                }
+                int space = name.indexOf(' ', start);
+                start = space < 0 ? -1 : space + 1;
+            }
+        }
+        matches.sort((a, b) -> Long.compare(weights[b], weights[a]));
+        List<String> result = new ArrayList<>(LIMIT);
+        for (int i = 0; i < Math.min(LIMIT, matches.size()); i++) {
+            result.add(names[matches.get(i)]);
+        }
+        return result;
+    }
+
+    private int nextWord() {
+        next = (next + 1) % WORDS.length;
+        return next;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
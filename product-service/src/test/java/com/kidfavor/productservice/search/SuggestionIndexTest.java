@@ -0,0 +1,175 @@
+package com.kidfavor.productservice.search;
+
+import com.kidfavor.productservice.search.SuggestionIndex.Suggestion;
+import com.kidfavor.productservice.search.SuggestionIndex.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+
+    private final SuggestionIndex index = new SuggestionIndex();
+
+    @Test
+    void matchesThePrefixOfAnyWord() {
+        index.put(Type.PRODUCT, 1, "Baby Lotion");
+        index.put(Type.PRODUCT, 2, "Lotion Pump");
+        index.put(Type.PRODUCT, 3, "Baby Shampoo");
+
+        assertThat(ids(index.suggest("lot", 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.suggest("baby sh", 10))).containsExactly(3L);
+        assertThat(ids(index.suggest("lotion b", 10))).isEmpty();
+        assertThat(ids(index.suggest("sha", 10))).containsExactly(3L);
+        assertThat(index.suggest("xyz", 10)).isEmpty();
+    }
+
+    @Test
+    void ignoresCaseAccentsAndPunctuation() {
+        index.put(Type.PRODUCT, 1, "Sữa Tắm Đậu-Nành");
+
+        assertThat(ids(index.suggest("SUA", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("tam", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("dau nanh", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("nanh", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void returnsHighestWeightFirstUpToTheLimit() {
+        index.put(Type.PRODUCT, 1, "Toy Car");
+        index.put(Type.PRODUCT, 2, "Toy Train");
+        index.put(Type.PRODUCT, 3, "Toy Boat");
+        index.put(Type.BRAND, 4, "Toyland");
+        index.setWeight(Type.PRODUCT, 1, 5);
+        index.setWeight(Type.PRODUCT, 2, 50);
+        index.setWeight(Type.BRAND, 4, 20);
+
+        List<Suggestion> suggestions = index.suggest("toy", 3);
+
+        assertThat(suggestions).extracting(Suggestion::id).containsExactly(2L, 4L, 1L);
+        assertThat(suggestions).extracting(Suggestion::type).containsExactly(Type.PRODUCT, Type.BRAND, Type.PRODUCT);
+        assertThat(suggestions).extracting(Suggestion::weight).containsExactly(50L, 20L, 5L);
+    }
+
+    @Test
+    void loweredWeightIsRankedByItsNewValue() {
+        index.put(Type.PRODUCT, 1, "Puzzle Small");
+        index.put(Type.PRODUCT, 2, "Puzzle Large");
+        index.setWeight(Type.PRODUCT, 1, 100);
+        index.setWeight(Type.PRODUCT, 2, 10);
+
+        index.setWeight(Type.PRODUCT, 1, 2);
+
+        assertThat(ids(index.suggest("puz", 2))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void renameKeepsWeightAndDropsTheOldName() {
+        index.put(Type.PRODUCT, 1, "Rattle");
+        index.setWeight(Type.PRODUCT, 1, 7);
+
+        index.put(Type.PRODUCT, 1, "Teether");
+
+        assertThat(index.suggest("rat", 10)).isEmpty();
+        assertThat(index.suggest("tee", 10))
+                .containsExactly(new Suggestion(Type.PRODUCT, 1, "Teether", 7));
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeAndBlankNamesDropEntries() {
+        index.put(Type.PRODUCT, 1, "Crib");
+        index.put(Type.CATEGORY, 1, "Cribs and Beds");
+
+        index.remove(Type.PRODUCT, 1);
+
+        assertThat(index.suggest("crib", 10)).extracting(Suggestion::type).containsExactly(Type.CATEGORY);
+
+        index.put(Type.CATEGORY, 1, "  ");
+
+        assertThat(index.suggest("crib", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+        assertThat(index.ids(Type.CATEGORY)).isEmpty();
+    }
+
+    @Test
+    void prefixesLongerThanTheKeyCapAreCheckedAgainstTheFullName() {
+        index.put(Type.PRODUCT, 1, "Supercalifragilisticexpialidocious Blocks");
+        index.put(Type.PRODUCT, 2, "Supercalifragilisticexpialidocious Books");
+
+        assertThat(ids(index.suggest("supercalifragilisticexpialidocious bl", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("supercalifragilisticexpi", 10))).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void emptyPrefixOrNonPositiveLimitReturnsNothing() {
+        index.put(Type.PRODUCT, 1, "Ball");
+
+        assertThat(index.suggest("", 10)).isEmpty();
+        assertThat(index.suggest("  -- ", 10)).isEmpty();
+        assertThat(index.suggest(null, 10)).isEmpty();
+        assertThat(index.suggest("ball", 0)).isEmpty();
+    }
+
+    @Test
+    void compactionKeepsLiveEntries() {
+        for (int id = 0; id < 5_000; id++) {
+            index.put(Type.PRODUCT, id, "Item " + id);
+        }
+        for (int id = 0; id < 4_900; id++) {
+            index.remove(Type.PRODUCT, id);
+        }
+
+        assertThat(index.size()).isEqualTo(100);
+        assertThat(index.ids(Type.PRODUCT)).hasSize(100).allMatch(id -> id >= 4_900);
+        assertThat(ids(index.suggest("item", 1_000))).hasSize(100).allMatch(id -> id >= 4_900);
+        assertThat(ids(index.suggest("4999", 10))).containsExactly(4_999L);
+    }
+
+    @Test
+    void topResultsMatchABruteForceScan() {
+        Random random = new Random(42);
+        String[] words = {"baby", "bath", "ball", "bear", "block", "book", "car", "cart", "cat", "doll"};
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Long> weights = new HashMap<>();
+        for (long id = 0; id < 2_000; id++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + id;
+            long weight = random.nextInt(1_000);
+            names.put(id, name);
+            weights.put(id, weight);
+            index.put(Type.PRODUCT, id, name);
+            index.setWeight(Type.PRODUCT, id, weight);
+        }
+        // Lower some weights so node bounds go stale
+        for (long id = 0; id < 2_000; id += 3) {
+            long weight = random.nextInt(10);
+            weights.put(id, weight);
+            index.setWeight(Type.PRODUCT, id, weight);
+        }
+
+        for (String prefix : List.of("b", "ba", "bal", "ca", "cart", "doll", "book", "1")) {
+            List<Long> expected = names.entrySet().stream()
+                    .filter(e -> (" " + e.getValue()).contains(" " + prefix))
+                    .map(e -> weights.get(e.getKey()))
+                    .sorted(Comparator.reverseOrder())
+                    .limit(10)
+                    .toList();
+
+            assertThat(index.suggest(prefix, 10)).as(prefix)
+                    .extracting(Suggestion::weight)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    private static List<Long> ids(List<Suggestion> suggestions) {
+        List<Long> ids = new ArrayList<>(suggestions.size());
+        suggestions.forEach(suggestion -> ids.add(suggestion.id()));
+        return ids;
+    }
+}
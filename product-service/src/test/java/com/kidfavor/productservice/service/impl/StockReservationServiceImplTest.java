@@ -0,0 +1,136 @@
+package com.kidfavor.productservice.service.impl;
+
+import com.kidfavor.productservice.dto.request.StockReservationItemRequest;
+import com.kidfavor.productservice.dto.request.StockReservationRequest;
+import com.kidfavor.productservice.entity.Product;
+import com.kidfavor.productservice.entity.ReservationStatus;
+import com.kidfavor.productservice.event.ProductChangeRecorder;
+import com.kidfavor.productservice.exception.StockReservationNotFoundException;
+import com.kidfavor.productservice.exception.StockReservationReleasedException;
+import com.kidfavor.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reservations against the expiry sweep, on H2 with the Flyway migrations. The TTL is negative,
+ * so every new reservation is already expired when the sweep runs.
+ */
+@DataJpaTest(properties = "app.stock-reservation.ttl=-1m")
+@Import({StockReservationServiceImpl.class, ProductChangeRecorder.class,
+        StockReservationServiceImplTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationServiceImplTest {
+
+    @Autowired
+    private StockReservationServiceImpl reservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void confirmFailsOnceTheSweepReleasedTheReservation() {
+        Long productId = createProduct(10);
+        reservationService.reserve(request("ORD-SWEPT", productId, 3));
+
+        reservationService.releaseExpired();
+
+        assertThat(stock(productId)).isEqualTo(10);
+        assertThatThrownBy(() -> reservationService.hold("ORD-SWEPT"))
+                .isInstanceOf(StockReservationReleasedException.class);
+        assertThatThrownBy(() -> reservationService.confirm("ORD-SWEPT"))
+                .isInstanceOf(StockReservationReleasedException.class);
+        assertThat(stock(productId)).isEqualTo(10);
+    }
+
+    @Test
+    void heldReservationSurvivesTheSweep() {
+        Long productId = createProduct(10);
+        reservationService.reserve(request("ORD-HELD", productId, 3));
+
+        reservationService.hold("ORD-HELD");
+        reservationService.releaseExpired();
+
+        assertThat(stock(productId)).isEqualTo(7);
+        assertThat(reservationService.confirm("ORD-HELD").getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        // Confirming again is a no-op
+        assertThat(reservationService.confirm("ORD-HELD").getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+    }
+
+    @Test
+    void partlyReleasedReservationConfirmsNothing() {
+        Long first = createProduct(10);
+        Long second = createProduct(10);
+        StockReservationRequest request = request("ORD-PARTIAL", first, 1);
+        request.getItems().add(new StockReservationItemRequest(second, 2));
+        reservationService.reserve(request);
+        reservationService.release("ORD-PARTIAL");
+
+        assertThatThrownBy(() -> reservationService.confirm("ORD-PARTIAL"))
+                .isInstanceOf(StockReservationReleasedException.class);
+        assertThat(stock(first)).isEqualTo(10);
+        assertThat(stock(second)).isEqualTo(10);
+    }
+
+    @Test
+    void unknownReservationIsNotFound() {
+        assertThatThrownBy(() -> reservationService.confirm("ORD-UNKNOWN"))
+                .isInstanceOf(StockReservationNotFoundException.class);
+        assertThatThrownBy(() -> reservationService.hold("ORD-UNKNOWN"))
+                .isInstanceOf(StockReservationNotFoundException.class);
+    }
+
+    private Long createProduct(int stock) {
+        Product product = new Product();
+        product.setName("Reserved product");
+        product.setPrice(BigDecimal.TEN);
+        product.setStock(stock);
+        return productRepository.saveAndFlush(product).getId();
+    }
+
+    private int stock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+
+    private static StockReservationRequest request(String reservationId, Long productId, int quantity) {
+        return new StockReservationRequest(reservationId,
+                new ArrayList<>(List.of(new StockReservationItemRequest(productId, quantity))));
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new NoOpCacheManager();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+}
@@ -180,6 +180,62 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success("User deleted successfully", null));
     }
 
+    @Operation(
+            summary = "Revoke all sessions of a user (Admin)",
+            description = "Invalidate every access and refresh token issued to the user. Only accessible by ADMIN role."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "User sessions revoked successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - JWT token missing or invalid"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - User does not have ADMIN role"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "User not found"
+            )
+    })
+    @PostMapping("/users/{id}/sessions/revoke")
+    public ResponseEntity<ApiResponse<Void>> revokeUserSessions(
+            @Parameter(description = "User ID", required = true)
+            @PathVariable Integer id) {
+        userService.revokeUserSessions(id);
+        return ResponseEntity.ok(ApiResponse.success("User sessions revoked successfully", null));
+    }
+
+    @Operation(
+            summary = "Revoke all sessions of a role (Admin)",
+            description = "Invalidate every access and refresh token issued to users of the role. Only accessible by ADMIN role."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Role sessions revoked successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - JWT token missing or invalid"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - User does not have ADMIN role"
+            )
+    })
+    @PostMapping("/roles/{role}/sessions/revoke")
+    public ResponseEntity<ApiResponse<Void>> revokeRoleSessions(
+            @Parameter(description = "User role (CUSTOMER, STAFF_FOR_STORE, STAFF_FOR_WAREHOUSE, ADMIN)", required = true)
+            @PathVariable Role role) {
+        userService.revokeRoleSessions(role);
+        return ResponseEntity.ok(ApiResponse.success("Role sessions revoked successfully", null));
+    }
+
     @Operation(
             summary = "Get users by role (Admin)",
             description = "Retrieve all users with a specific role. Only accessible by ADMIN role."
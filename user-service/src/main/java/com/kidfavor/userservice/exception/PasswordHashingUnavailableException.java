@@ -0,0 +1,12 @@
+package com.kidfavor.userservice.exception;
+
+/**
+ * The password hashing pool is saturated; the request is rejected instead of queuing
+ * behind other logins.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
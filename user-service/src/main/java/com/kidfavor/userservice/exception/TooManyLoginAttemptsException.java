@@ -0,0 +1,17 @@
+package com.kidfavor.userservice.exception;
+
+import lombok.Getter;
+
+/**
+ * Too many authentication attempts for a username or client address within the throttle window.
+ */
+@Getter
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyLoginAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
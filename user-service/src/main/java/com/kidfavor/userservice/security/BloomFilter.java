@@ -0,0 +1,96 @@
+package com.kidfavor.userservice.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, thread-safe bloom filter over strings. Lookups never return a false negative;
+ * false positives occur at roughly the rate the filter was sized for while it holds no more
+ * than the expected number of entries.
+ */
+final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder insertions = new LongAdder();
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        this.bitCount = (long) words.length() * 64;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * @param bitsPerEntry memory per entry, or 0 to derive it from the false-positive rate
+     */
+    static BloomFilter create(long expectedEntries, double falsePositiveRate, double bitsPerEntry) {
+        double bits = bitsPerEntry > 0 ? bitsPerEntry : -Math.log(falsePositiveRate) / (LN2 * LN2);
+        long bitCount = Math.max(64, (long) Math.ceil(Math.max(expectedEntries, 1) * bits));
+        int hashCount = Math.max(1, (int) Math.round(bits * LN2));
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+        insertions.increment();
+    }
+
+    boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of {@link #put} calls; duplicates are counted again.
+     */
+    long insertions() {
+        return insertions.sum();
+    }
+
+    long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    /**
+     * False-positive rate expected at the current number of entries.
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) insertions() / bitCount), hashCount);
+    }
+
+    // FNV-1a over the UTF-16 chars, finalized so that nearby ids spread over the whole range
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,137 @@
+package com.kidfavor.userservice.security;
+
+import com.kidfavor.userservice.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a CPU-heavy {@link PasswordEncoder} (BCrypt) on a small fixed pool with a bounded queue.
+ * At most poolSize hashes run at once, whatever the login load, and once the queue is full
+ * further calls fail immediately with {@link PasswordHashingUnavailableException} instead of
+ * tying up request threads, so other endpoints keep their threads and CPU.
+ * <p>
+ * A caller waits at most {@code timeout}. BCrypt does not respond to interruption, so a hash that
+ * has already started when its caller gives up runs to completion on its pool thread and its
+ * result is discarded; only a hash still in the queue is dropped. Abandoned work is therefore
+ * limited to the poolSize threads already busy, and the bounded queue keeps rejecting new calls
+ * meanwhile.
+ * Pool activity and queue depth are published as executor.* metrics named "password-hashing".
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Counter rejections;
+    private final Counter timeouts;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  int poolSize,
+                                  int queueCapacity,
+                                  Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing");
+        this.rejections = Counter.builder("auth.password.hashing.rejected")
+                .description("Password hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("auth.password.hashing.timeouts")
+                .description("Password hashing requests whose caller stopped waiting after the timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Only parses the stored hash, so it runs on the caller's thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejections.increment();
+            throw new PasswordHashingUnavailableException("Authentication is busy, please retry shortly");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            if (abandon(future)) {
+                log.warn("Password hashing did not start within {}", timeout);
+            } else {
+                log.warn("Password hashing did not finish within {}; it completes in the background", timeout);
+            }
+            throw new PasswordHashingUnavailableException("Authentication is busy, please retry shortly");
+        } catch (InterruptedException ex) {
+            abandon(future);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while hashing password");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Drops the task if it is still queued. A running hash cannot be stopped, so it is left to
+     * finish and its result is ignored.
+     *
+     * @return whether the task was removed before it started
+     */
+    private boolean abandon(Future<?> future) {
+        // submit() queues the returned FutureTask itself
+        boolean removed = executor.remove((Runnable) future);
+        future.cancel(false);
+        return removed;
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
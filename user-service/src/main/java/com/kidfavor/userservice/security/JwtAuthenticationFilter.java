@@ -1,13 +1,18 @@
 package com.kidfavor.userservice.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,6 +21,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 @RequiredArgsConstructor
@@ -25,6 +31,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
 
+    @Value("${jwt.claims-authentication.enabled:true}")
+    private boolean claimsAuthenticationEnabled;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -32,10 +41,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
+            // Verified once; the claims are reused instead of parsing the token again
+            Claims claims = StringUtils.hasText(jwt) ? jwtTokenProvider.resolveClaims(jwt) : null;
+
+            if (claims != null) {
+                UserDetails userDetails = principalFromClaims(claims);
+                if (userDetails == null) {
+                    // Legacy token without version claims, or claims authentication disabled: trust the database
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                    if (!userDetails.isEnabled()) {
+                        throw new DisabledException("User is disabled: " + userDetails.getUsername());
+                    }
+                }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -53,6 +71,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the principal from verified claims, so the request needs no database lookup.
+     * {@link JwtTokenProvider#resolveClaims} has already rejected tokens older than the user's
+     * token version, which every role change, deactivation and deletion bumps.
+     * Returns null for tokens issued before version claims existed.
+     */
+    private UserDetails principalFromClaims(Claims claims) {
+        if (!claimsAuthenticationEnabled) {
+            return null;
+        }
+        Integer userId = claims.get("userId", Integer.class);
+        String role = claims.get("role", String.class);
+        if (userId == null || role == null || claims.get(TokenVersionService.USER_VERSION_CLAIM) == null) {
+            return null;
+        }
+        return new User(claims.getSubject(), "",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
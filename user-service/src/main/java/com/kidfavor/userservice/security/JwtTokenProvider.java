@@ -1,16 +1,24 @@
 package com.kidfavor.userservice.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.kidfavor.userservice.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 @Component
@@ -26,107 +34,186 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
 
-    private final RedisTemplate<String, String> redisTemplate;
+    @Value("${jwt.verified-cache.maximum-size:10000}")
+    private long verifiedCacheMaximumSize;
 
-    private static final String BLACKLIST_PREFIX = "jwt:blacklist:";
+    private final TokenVersionService tokenVersionService;
+    private final TokenBlacklist tokenBlacklist;
 
-    public JwtTokenProvider(RedisTemplate<String, String> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    // Built once: the key never changes and JwtParser is immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    /**
+     * Claims of tokens whose signature was already verified, keyed by SHA-256 of the token
+     * and kept until the token expires. Hashing is much cheaper than parsing and verifying,
+     * and raw tokens are not held in memory.
+     */
+    private Cache<String, Claims> verifiedTokens;
+
+    public JwtTokenProvider(TokenVersionService tokenVersionService,
+                            TokenBlacklist tokenBlacklist) {
+        this.tokenVersionService = tokenVersionService;
+        this.tokenBlacklist = tokenBlacklist;
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaximumSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long ttlMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateAccessToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + accessTokenExpiration);
+        long[] versions = tokenVersionService.currentVersions(user.getUserName(), user.getRole().name());
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getUserName())
                 .claim("userId", user.getId())
                 .claim("email", user.getEmail())
                 .claim("role", user.getRole().name())
+                .claim(TokenVersionService.USER_VERSION_CLAIM, versions[0])
+                .claim(TokenVersionService.ROLE_VERSION_CLAIM, versions[1])
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public String generateRefreshToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + refreshTokenExpiration);
+        long[] versions = tokenVersionService.currentVersions(user.getUserName(), user.getRole().name());
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getUserName())
                 .claim("type", "refresh")
+                .claim("role", user.getRole().name())
+                .claim(TokenVersionService.USER_VERSION_CLAIM, versions[0])
+                .claim(TokenVersionService.ROLE_VERSION_CLAIM, versions[1])
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String token) {
+    /**
+     * Verifies a token once and returns its claims.
+     * Returns null when the token is blacklisted, older than its user's or role's token version,
+     * malformed, expired or wrongly signed.
+     * The blacklist is checked on every call; only the signature check is cached.
+     */
+    public Claims resolveClaims(String token) {
         try {
+            Claims claims = verify(token);
+
             // Check if token is blacklisted
-            if (isTokenBlacklisted(token)) {
+            if (tokenBlacklist.isRevoked(tokenId(claims, token))) {
                 log.warn("Token is blacklisted");
-                return false;
+                return null;
             }
-
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            if (!tokenVersionService.isCurrent(claims)) {
+                log.warn("Token predates the current token version of its user or role");
+                return null;
+            }
+            return claims;
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
             log.error("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
             log.error("Unsupported JWT token");
+        } catch (JwtException ex) {
+            log.error("JWT validation failed: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return null;
+    }
+
+    public String getUsernameFromToken(String token) {
+        return verify(token).getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        return resolveClaims(token) != null;
     }
 
     public void invalidateToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = verify(token);
 
             long ttl = claims.getExpiration().getTime() - System.currentTimeMillis();
             if (ttl > 0) {
-                redisTemplate.opsForValue().set(
-                        BLACKLIST_PREFIX + token,
-                        "blacklisted",
-                        ttl,
-                        TimeUnit.MILLISECONDS
-                );
+                tokenBlacklist.revoke(tokenId(claims, token), ttl);
                 log.info("Token added to blacklist");
             }
+            verifiedTokens.invalidate(hash(token));
         } catch (Exception e) {
             log.error("Error invalidating token: {}", e.getMessage());
         }
     }
 
-    private boolean isTokenBlacklisted(String token) {
-        return Boolean.TRUE.equals(redisTemplate.hasKey(BLACKLIST_PREFIX + token));
+    /**
+     * Returns the claims of a cached, still-valid verification, or parses and verifies the
+     * token and caches the result. Throws the parser's exception when the token is invalid.
+     */
+    private Claims verify(String token) {
+        String tokenHash = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(tokenHash);
+        if (claims != null) {
+            // Cache expiry is not exact to the millisecond; never accept an expired token
+            if (claims.getExpiration().before(new Date())) {
+                verifiedTokens.invalidate(tokenHash);
+                throw new ExpiredJwtException(null, claims, "JWT expired");
+            }
+            return claims;
+        }
+        claims = jwtParser.parseSignedClaims(token).getPayload();
+        verifiedTokens.put(tokenHash, claims);
+        return claims;
+    }
+
+    /**
+     * Blacklist key of a token: its jti, or the raw token for tokens issued before jti was set,
+     * which matches the blacklist entries written for them before.
+     */
+    private static String tokenId(Claims claims, String token) {
+        return claims.getId() != null ? claims.getId() : token;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
     }
 
     public long getAccessTokenExpiration() {
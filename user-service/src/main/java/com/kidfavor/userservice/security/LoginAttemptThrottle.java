@@ -0,0 +1,134 @@
+package com.kidfavor.userservice.security;
+
+import com.kidfavor.userservice.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Throttles authentication attempts per username and per client address with a sliding-window
+ * counter in Redis, shared by all replicas. Each scope keeps one counter per fixed window; the
+ * sliding count is the current window plus the previous one weighted by how much of it still
+ * overlaps the sliding window. Check and increment run in one Lua script, so concurrent attempts
+ * cannot all pass a check made before any of them was counted. Attempts are checked before any
+ * password is hashed, so throttled requests cost one Redis call per scope instead of a BCrypt
+ * computation. When Redis is unavailable attempts are let through.
+ */
+@Component
+@Slf4j
+public class LoginAttemptThrottle {
+
+    private static final String PREFIX = "auth:attempts:";
+
+    /**
+     * KEYS: previous window, current window. ARGV: weight of the previous window, expiry in ms, limit.
+     * Counts the attempt and returns 1, or undoes the increment and returns 0 when it goes over the limit.
+     * The counter is kept for two windows: it is still read as the previous window after this one ends.
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('INCR', KEYS[2])
+            if current == 1 then
+                redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            end
+            local previous = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if previous * tonumber(ARGV[1]) + current > tonumber(ARGV[3]) then
+                redis.call('DECR', KEYS[2])
+                return 0
+            end
+            return 1
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.login-throttle.window:5m}")
+    private Duration window;
+
+    @Value("${app.login-throttle.max-attempts-per-username:10}")
+    private int maxAttemptsPerUsername;
+
+    @Value("${app.login-throttle.max-attempts-per-ip:100}")
+    private int maxAttemptsPerIp;
+
+    public LoginAttemptThrottle(RedisTemplate<String, String> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records an attempt, or throws {@link TooManyLoginAttemptsException} when either scope is
+     * already over its limit.
+     *
+     * @param username attempted username, or {@code null} to throttle by address only
+     */
+    public void acquire(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (clientIp != null) {
+                acquire("ip", clientIp, maxAttemptsPerIp);
+            }
+            if (username != null) {
+                acquire("user", username.toLowerCase(), maxAttemptsPerUsername);
+            }
+        } catch (TooManyLoginAttemptsException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            log.warn("Login throttle unavailable, allowing attempt: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Forgets the username's attempts after a successful login, so earlier typos do not count
+     * towards a lockout.
+     */
+    public void reset(String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+        long currentWindow = currentWindow();
+        try {
+            redisTemplate.delete(List.of(
+                    key("user", username.toLowerCase(), currentWindow),
+                    key("user", username.toLowerCase(), currentWindow - 1)));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to reset login attempts of {}: {}", username, ex.getMessage());
+        }
+    }
+
+    private void acquire(String scope, String id, int limit) {
+        long now = System.currentTimeMillis();
+        long windowMillis = window.toMillis();
+        long currentWindow = now / windowMillis;
+        double elapsed = (double) (now % windowMillis) / windowMillis;
+
+        Long allowed = redisTemplate.execute(ACQUIRE_SCRIPT,
+                List.of(key(scope, id, currentWindow - 1), key(scope, id, currentWindow)),
+                Double.toString(1 - elapsed), Long.toString(windowMillis * 2), Integer.toString(limit));
+
+        if (allowed != null && allowed == 0) {
+            meterRegistry.counter("auth.login.throttled", "scope", scope).increment();
+            long retryAfter = Math.max(1, (windowMillis - now % windowMillis) / 1000);
+            throw new TooManyLoginAttemptsException("Too many login attempts, please retry later", retryAfter);
+        }
+    }
+
+    private long currentWindow() {
+        return System.currentTimeMillis() / window.toMillis();
+    }
+
+    private static String key(String scope, String id, long window) {
+        return PREFIX + scope + ":" + id + ":" + window;
+    }
+}
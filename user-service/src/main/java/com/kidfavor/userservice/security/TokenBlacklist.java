@@ -0,0 +1,193 @@
+package com.kidfavor.userservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked token ids, stored in Redis with the token's remaining lifetime and mirrored in a local
+ * bloom filter. A filter miss proves the token was not revoked and answers without a network
+ * call; only filter hits are confirmed against Redis. Revocations are broadcast on a pub/sub
+ * channel so every other replica adds them to its filter, and the filter is periodically rebuilt
+ * from Redis to drop expired ids and to pick up any message that was missed.
+ * Until the first load completes every lookup goes to Redis.
+ */
+@Component
+@Slf4j
+public class TokenBlacklist implements MessageListener {
+
+    private static final String BLACKLIST_PREFIX = "jwt:blacklist:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Identifies this replica in revocation messages so it ignores its own broadcasts.
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${jwt.blacklist.channel:jwt:revocations}")
+    private String channel;
+
+    @Value("${jwt.blacklist.filter.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${jwt.blacklist.filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.blacklist.filter.bits-per-entry:0}")
+    private double bitsPerEntry;
+
+    private volatile BloomFilter filter;
+    // Filter being rebuilt; revocations received meanwhile go into both
+    private volatile BloomFilter pending;
+    private volatile boolean loaded;
+
+    private Counter filterNegatives;
+    private Counter confirmedRevocations;
+    private Counter falsePositives;
+    private Counter unfilteredLookups;
+
+    public TokenBlacklist(RedisTemplate<String, String> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        filter = BloomFilter.create(expectedEntries, falsePositiveRate, bitsPerEntry);
+
+        filterNegatives = lookupCounter("filter_negative");
+        confirmedRevocations = lookupCounter("revoked");
+        falsePositives = lookupCounter("false_positive");
+        unfilteredLookups = lookupCounter("unfiltered");
+
+        Gauge.builder("jwt.blacklist.filter.entries", this, blacklist -> blacklist.filter.insertions())
+                .description("Revoked token ids in the local bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("jwt.blacklist.filter.size", this, blacklist -> blacklist.filter.sizeInBytes())
+                .description("Memory used by the local bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("jwt.blacklist.filter.bits.per.entry", this,
+                        blacklist -> blacklist.filter.sizeInBytes() * 8.0 / Math.max(1, blacklist.filter.insertions()))
+                .description("Bloom filter bits per revoked token id currently held")
+                .register(meterRegistry);
+        Gauge.builder("jwt.blacklist.filter.false.positive.rate", this,
+                        blacklist -> blacklist.filter.expectedFalsePositiveRate())
+                .description("Expected false-positive rate of the bloom filter at its current fill")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (loaded && !filter.mightContain(tokenId)) {
+            filterNegatives.increment();
+            return false;
+        }
+        boolean revoked = Boolean.TRUE.equals(redisTemplate.hasKey(BLACKLIST_PREFIX + tokenId));
+        if (!loaded) {
+            unfilteredLookups.increment();
+        } else if (revoked) {
+            confirmedRevocations.increment();
+        } else {
+            falsePositives.increment();
+        }
+        return revoked;
+    }
+
+    public void revoke(String tokenId, long ttlMillis) {
+        redisTemplate.opsForValue().set(BLACKLIST_PREFIX + tokenId, "blacklisted", ttlMillis, TimeUnit.MILLISECONDS);
+        add(tokenId);
+        redisTemplate.convertAndSend(channel, instanceId + " " + tokenId);
+    }
+
+    /**
+     * Revocation broadcast by another replica; this replica's own revocations are already in
+     * its filter.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // Format: "<instanceId> <tokenId>"; token ids never contain spaces, so a message without
+        // one is a bare token id from a replica that predates the instance id
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(' ');
+        if (separator < 0) {
+            add(body);
+        } else if (!instanceId.equals(body.substring(0, separator))) {
+            add(body.substring(separator + 1));
+        }
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the filter with one built from the ids currently in Redis. Bloom filters cannot
+     * remove entries, so this is also what drops ids whose tokens have expired.
+     */
+    @Scheduled(fixedDelayString = "${jwt.blacklist.filter.rebuild-interval-ms:600000}",
+            initialDelayString = "${jwt.blacklist.filter.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        try {
+            List<String> tokenIds = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(BLACKLIST_PREFIX + "*").count(1000).build();
+            pending = BloomFilter.create(expectedEntries, falsePositiveRate, bitsPerEntry);
+            try (Cursor<String> keys = redisTemplate.scan(options)) {
+                keys.forEachRemaining(key -> tokenIds.add(key.substring(BLACKLIST_PREFIX.length())));
+            }
+            if (tokenIds.size() > expectedEntries) {
+                log.warn("{} revoked tokens exceed the bloom filter capacity of {}; raise "
+                        + "jwt.blacklist.filter.expected-entries", tokenIds.size(), expectedEntries);
+            }
+            BloomFilter rebuilt = pending;
+            tokenIds.forEach(rebuilt::put);
+            filter = rebuilt;
+            loaded = true;
+            log.debug("Token blacklist filter rebuilt with {} ids", tokenIds.size());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to rebuild token blacklist filter: {}", ex.getMessage());
+        } finally {
+            pending = null;
+        }
+    }
+
+    private void add(String tokenId) {
+        // Pending first: once it reads null, the rebuilt filter has already been swapped in
+        BloomFilter rebuilding = pending;
+        if (rebuilding != null) {
+            rebuilding.put(tokenId);
+        }
+        filter.put(tokenId);
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder("jwt.blacklist.lookups")
+                .description("Token blacklist lookups by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
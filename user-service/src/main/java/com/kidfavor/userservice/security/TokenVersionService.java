@@ -0,0 +1,120 @@
+package com.kidfavor.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-user and per-role token versions kept in Redis. Tokens carry the versions current at
+ * issue time; bumping one (role change, deactivation, deletion, "log out everywhere", admin
+ * revocation) rejects every access and refresh token issued before it, for one user or for a
+ * whole role, with a single write and without growing the blacklist.
+ * Versions are checked against a short-lived local cache, so another replica may accept an
+ * outdated token for up to {@code jwt.token-version.cache-ttl}; the replica that bumps the
+ * version drops its cached copy at once.
+ */
+@Component
+@Slf4j
+public class TokenVersionService {
+
+    // Claim names and keys predate the merge of the user version into this counter; kept so that
+    // tokens revoked before it stay revoked
+    public static final String USER_VERSION_CLAIM = "gen";
+    public static final String ROLE_VERSION_CLAIM = "rgen";
+
+    // Keyed by username, the token subject, so refresh tokens (which carry no userId) are covered too
+    private static final String USER_PREFIX = "jwt:generation:user:";
+    private static final String ROLE_PREFIX = "jwt:generation:role:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${jwt.token-version.cache-ttl:5s}")
+    private Duration cacheTtl;
+
+    @Value("${jwt.token-version.cache-maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    private Cache<String, Long> versions;
+
+    public TokenVersionService(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostConstruct
+    void init() {
+        versions = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Versions to embed in a new token, read from Redis rather than the cache so that a token
+     * issued right after a bump is not born outdated on replicas with a fresher cache.
+     *
+     * @return user version and role version, in that order
+     */
+    public long[] currentVersions(String username, String role) {
+        String userKey = USER_PREFIX + username;
+        String roleKey = ROLE_PREFIX + role;
+        List<String> values = redisTemplate.opsForValue().multiGet(List.of(userKey, roleKey));
+        long userVersion = parse(values != null ? values.get(0) : null);
+        long roleVersion = parse(values != null ? values.get(1) : null);
+        versions.put(userKey, userVersion);
+        versions.put(roleKey, roleVersion);
+        return new long[]{userVersion, roleVersion};
+    }
+
+    /**
+     * Whether neither the token's user nor its role was bumped since it was issued.
+     * Tokens without version claims count as version 0.
+     */
+    public boolean isCurrent(Claims claims) {
+        if (version(claims, USER_VERSION_CLAIM) < cached(USER_PREFIX + claims.getSubject())) {
+            return false;
+        }
+        String role = claims.get("role", String.class);
+        return role == null || version(claims, ROLE_VERSION_CLAIM) >= cached(ROLE_PREFIX + role);
+    }
+
+    /**
+     * Rejects every token issued so far to the user.
+     */
+    public void bumpUser(String username) {
+        bump(USER_PREFIX + username);
+    }
+
+    /**
+     * Rejects every token issued so far to users of the role.
+     */
+    public void bumpRole(String role) {
+        bump(ROLE_PREFIX + role);
+    }
+
+    private void bump(String key) {
+        Long version = redisTemplate.opsForValue().increment(key);
+        versions.invalidate(key);
+        log.info("Token version of {} bumped to {}", key.substring("jwt:generation:".length()), version);
+    }
+
+    private long cached(String key) {
+        return versions.get(key, k -> parse(redisTemplate.opsForValue().get(k)));
+    }
+
+    private static long version(Claims claims, String claim) {
+        Number version = claims.get(claim, Number.class);
+        return version != null ? version.longValue() : 0L;
+    }
+
+    private static long parse(String value) {
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+}
@@ -6,8 +6,9 @@ import com.kidfavor.userservice.dto.request.auth.RegisterRequest;
 import com.kidfavor.userservice.dto.response.AuthResponse;
 
 public interface AuthService {
-    AuthResponse register(RegisterRequest request);
-    AuthResponse login(LoginRequest request);
+    AuthResponse register(RegisterRequest request, String clientIp);
+    AuthResponse login(LoginRequest request, String clientIp);
     AuthResponse refreshToken(RefreshTokenRequest request);
     void logout(String token);
+    void logoutAll(String token);
 }
@@ -17,5 +17,7 @@ public interface UserService {
     void changeUserStatus(int id);
     UserResponse changeUserRole(int id, Role role);
     void deleteUser(int id);
+    void revokeUserSessions(int id);
+    void revokeRoleSessions(Role role);
 
 }
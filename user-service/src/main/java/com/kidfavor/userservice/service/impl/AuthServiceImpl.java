@@ -9,7 +9,10 @@ import com.kidfavor.userservice.entity.User;
 import com.kidfavor.userservice.entity.enums.Role;
 import com.kidfavor.userservice.repository.UserRepository;
 import com.kidfavor.userservice.security.JwtTokenProvider;
+import com.kidfavor.userservice.security.LoginAttemptThrottle;
+import com.kidfavor.userservice.security.TokenVersionService;
 import com.kidfavor.userservice.service.AuthService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,7 +21,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -27,12 +29,17 @@ public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionService tokenVersionService;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final LoginAttemptThrottle loginAttemptThrottle;
 
+    // Not @Transactional: no database connection is held while the password is being hashed;
+    // save() runs in its own transaction
     @Override
-    @Transactional
-    public AuthResponse register(RegisterRequest request) {
+    public AuthResponse register(RegisterRequest request, String clientIp) {
+        loginAttemptThrottle.acquire(null, clientIp);
+
         // Check if username already exists
         if (userRepository.findByUserName(request.getUsername()).isPresent()) {
             throw new RuntimeException("Username already exists");
@@ -70,7 +77,10 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        // Before authenticate(): throttled attempts never reach the password hashing pool
+        loginAttemptThrottle.acquire(request.getUsername(), clientIp);
+
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getUsername(),
@@ -87,6 +97,8 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("User account is disabled");
         }
 
+        loginAttemptThrottle.reset(user.getUserName());
+
         String accessToken = jwtTokenProvider.generateAccessToken(user);
         String refreshToken = jwtTokenProvider.generateRefreshToken(user);
 
@@ -105,11 +117,12 @@ public class AuthServiceImpl implements AuthService {
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         String refreshToken = request.getRefreshToken();
 
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        Claims claims = jwtTokenProvider.resolveClaims(refreshToken);
+        if (claims == null) {
             throw new RuntimeException("Invalid refresh token");
         }
 
-        String username = jwtTokenProvider.getUsernameFromToken(refreshToken);
+        String username = claims.getSubject();
         User user = userRepository.findByUserName(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -133,6 +146,19 @@ public class AuthServiceImpl implements AuthService {
         log.info("User logged out successfully");
     }
 
+    @Override
+    public void logoutAll(String token) {
+        Claims claims = jwtTokenProvider.resolveClaims(token);
+        if (claims == null) {
+            throw new RuntimeException("Invalid token");
+        }
+
+        // One increment revokes every access and refresh token issued to the user so far
+        tokenVersionService.bumpUser(claims.getSubject());
+        SecurityContextHolder.clearContext();
+        log.info("User logged out from all sessions: {}", claims.getSubject());
+    }
+
     private UserResponse mapToUserResponse(User user) {
         return UserResponse.builder()
                 .id(user.getId())
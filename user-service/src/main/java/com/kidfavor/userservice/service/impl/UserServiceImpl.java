@@ -5,6 +5,7 @@ import com.kidfavor.userservice.dto.response.UserResponse;
 import com.kidfavor.userservice.entity.User;
 import com.kidfavor.userservice.entity.enums.Role;
 import com.kidfavor.userservice.repository.UserRepository;
+import com.kidfavor.userservice.security.TokenVersionService;
 import com.kidfavor.userservice.service.UserService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +16,8 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,6 +27,7 @@ import java.util.stream.Collectors;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class UserServiceImpl implements UserService {
     UserRepository userRepository;
+    TokenVersionService tokenVersionService;
 
     @Override
     @Cacheable(value = "users", key = "'all'")
@@ -85,6 +89,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(()->new RuntimeException("user not found with id:"+id));
         user.setStatus(!user.getStatus());
         userRepository.save(user);
+        revokeSessionsAfterCommit(user.getUserName());
     }
 
     @Override
@@ -99,7 +104,9 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("user not found with id:" + id));
         user.setRole(role);
-        return UserResponse.from(userRepository.save(user));
+        User saved = userRepository.save(user);
+        revokeSessionsAfterCommit(saved.getUserName());
+        return UserResponse.from(saved);
     }
 
     @Override
@@ -114,5 +121,32 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("user not found with id:" + id));
         userRepository.delete(user);
+        revokeSessionsAfterCommit(user.getUserName());
+    }
+
+    @Override
+    public void revokeUserSessions(int id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("user not found with id:" + id));
+        tokenVersionService.bumpUser(user.getUserName());
+    }
+
+    @Override
+    public void revokeRoleSessions(Role role) {
+        tokenVersionService.bumpRole(role.name());
+    }
+
+    /**
+     * Bumps the user's token version once the change is committed. Bumping earlier would let a
+     * login or refresh in between read the new version together with the old role or status,
+     * minting a token that counts as current but carries the old claims.
+     */
+    private void revokeSessionsAfterCommit(String userName) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenVersionService.bumpUser(userName);
+            }
+        });
     }
 }
@@ -0,0 +1,16 @@
+-- Sequence-generated ids for users and shipments, so inserts can be JDBC-batched.
+-- INCREMENT BY 50 matches @SequenceGenerator(allocationSize = 50) with the pooled-lo optimizer.
+-- Tables are still created by ddl-auto=update, which runs after Flyway: on an existing
+-- database each sequence starts after the current maximum id, on a new one it starts at 1.
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS shipments_seq INCREMENT BY 50;
+
+DO $$
+BEGIN
+    IF to_regclass('users') IS NOT NULL THEN
+        PERFORM setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+    END IF;
+    IF to_regclass('shipments') IS NOT NULL THEN
+        PERFORM setval('shipments_seq', COALESCE((SELECT MAX(ship_id) FROM shipments), 0) + 1, false);
+    END IF;
+END $$;
@@ -0,0 +1,121 @@
+package com.kidfavor.userservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BloomFilterTest {
+
+    private static final int ENTRIES = 100_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void neverReturnsAFalseNegative() {
+        BloomFilter filter = BloomFilter.create(ENTRIES, 0.01, 0);
+        List<String> ids = randomIds(ENTRIES);
+        ids.forEach(filter::put);
+
+        assertThat(ids).allMatch(filter::mightContain);
+        assertThat(filter.insertions()).isEqualTo(ENTRIES);
+    }
+
+    @Test
+    void falsePositiveRateIsNearTheTarget() {
+        for (double target : new double[]{0.01, 0.001}) {
+            BloomFilter filter = BloomFilter.create(ENTRIES, target, 0);
+            randomIds(ENTRIES).forEach(filter::put);
+
+            double measured = falsePositiveRate(filter);
+
+            assertThat(measured).as("target %s", target).isBetween(target * 0.5, target * 1.5);
+            assertThat(filter.expectedFalsePositiveRate()).as("target %s", target)
+                    .isCloseTo(target, within(target * 0.2));
+        }
+    }
+
+    @Test
+    void sequentialIdsSpreadLikeRandomOnes() {
+        // Token ids are UUIDs, but the hash must not depend on that
+        BloomFilter filter = BloomFilter.create(ENTRIES, 0.01, 0);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.put("token-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = ENTRIES; i < ENTRIES + PROBES; i++) {
+            if (filter.mightContain("token-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / (double) PROBES).isLessThan(0.015);
+    }
+
+    @Test
+    void bitsPerEntryOverridesTheRateBasedSize() {
+        BloomFilter filter = BloomFilter.create(ENTRIES, 0.01, 16);
+        randomIds(ENTRIES).forEach(filter::put);
+
+        assertThat(filter.sizeInBytes()).isBetween(ENTRIES * 2L, ENTRIES * 2L + 8);
+        // 16 bits per entry with 11 hashes gives about 0.05%
+        assertThat(falsePositiveRate(filter)).isLessThan(0.001);
+    }
+
+    @Test
+    void overfillingRaisesTheExpectedRate() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01, 0);
+        randomIds(1_000).forEach(filter::put);
+        double atCapacity = filter.expectedFalsePositiveRate();
+        randomIds(4_000).forEach(filter::put);
+
+        assertThat(filter.expectedFalsePositiveRate()).isGreaterThan(atCapacity * 10);
+    }
+
+    @Test
+    void concurrentPutsAreAllVisible() throws Exception {
+        BloomFilter filter = BloomFilter.create(ENTRIES, 0.01, 0);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> ids = randomIds(ENTRIES / threads);
+                    ids.forEach(filter::put);
+                    return ids;
+                }));
+            }
+            for (Future<List<String>> future : futures) {
+                assertThat(future.get()).allMatch(filter::mightContain);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(filter.insertions()).isEqualTo(ENTRIES);
+    }
+
+    private static double falsePositiveRate(BloomFilter filter) {
+        int falsePositives = 0;
+        for (String id : randomIds(PROBES)) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        return falsePositives / (double) PROBES;
+    }
+
+    private static List<String> randomIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,115 @@
+package com.kidfavor.userservice.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Token CPU per authenticated request. The "before" path is what the filter used to do: decode
+ * the secret and build a parser on every call, then verify the same token twice (validateToken
+ * and getUsernameFromToken). {@link JwtTokenProvider#resolveClaims} verifies once and serves
+ * repeat requests from the verified-token cache; verifyOnce is the cost of a cache miss.
+ * Redis is stubbed and the blacklist filter is loaded, so no network time is included.
+ * <pre>
+ * mvn -P benchmark test -Djmh.args="JwtTokenProviderBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "dGhpcyBpcyBhIHZlcnkgc2VjdXJlIGFuZCBsb25nIHNlY3JldCBrZXkgZm9yIGp3dCB0b2tlbiBnZW5lcmF0aW9uIGZvciBraWRmYXZvciBhcHBsaWNhdGlvbg==";
+
+    private JwtTokenProvider provider;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class, RETURNS_DEEP_STUBS);
+
+        TokenBlacklist tokenBlacklist = new TokenBlacklist(redisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenBlacklist, "expectedEntries", 100_000L);
+        ReflectionTestUtils.setField(tokenBlacklist, "falsePositiveRate", 0.01);
+        tokenBlacklist.init();
+        ReflectionTestUtils.setField(tokenBlacklist, "loaded", true);
+
+        TokenVersionService tokenVersionService = new TokenVersionService(redisTemplate);
+        ReflectionTestUtils.setField(tokenVersionService, "cacheTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(tokenVersionService, "cacheMaximumSize", 10_000L);
+        tokenVersionService.init();
+
+        provider = new JwtTokenProvider(tokenVersionService, tokenBlacklist);
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "verifiedCacheMaximumSize", 10_000L);
+        provider.init();
+
+        SecretKey key = signingKey();
+        parser = Jwts.parser().verifyWith(key).build();
+        Date now = new Date();
+        token = Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject("benchmark-user")
+                .claim("userId", 1L)
+                .claim("email", "benchmark-user@kidfavor.com")
+                .claim("role", "USER")
+                .claim(TokenVersionService.USER_VERSION_CLAIM, 0L)
+                .claim(TokenVersionService.ROLE_VERSION_CLAIM, 0L)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(key)
+                .compact();
+        if (provider.resolveClaims(token) == null) {
+            throw new IllegalStateException("Benchmark token was rejected");
+        }
+    }
+
+    @Benchmark
+    public String before() {
+        Jwts.parser().verifyWith(signingKey()).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(signingKey()).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public Claims verifyOnce() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims resolveClaims() {
+        return provider.resolveClaims(token);
+    }
+
+    private static SecretKey signingKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+}